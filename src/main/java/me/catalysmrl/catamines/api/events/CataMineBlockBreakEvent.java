@@ -4,12 +4,20 @@ import me.catalysmrl.catamines.api.mine.CataMine;
 import me.catalysmrl.catamines.mine.components.composition.CataMineBlock;
 import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
 import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * Called when a block of a mine composition is broken. Blocks broken by
+ * explosions are reported by a {@link CataMineBlocksBreakEvent} instead,
+ * unless per-block events are enabled in the config.
+ */
 public class CataMineBlockBreakEvent extends Event implements Cancellable {
 
     private static final HandlerList HANDLER_LIST = new HandlerList();
@@ -21,6 +29,8 @@ public class CataMineBlockBreakEvent extends Event implements Cancellable {
     private final CataMineComposition cataMineComposition;
     private final CataMineBlock cataMineBlock;
 
+    private final Block block;
+    private final Player player;
     private final BlockBreakEvent blockBreakEvent;
 
     @NotNull
@@ -35,10 +45,17 @@ public class CataMineBlockBreakEvent extends Event implements Cancellable {
     }
 
     public CataMineBlockBreakEvent(CataMine cataMine, CataMineRegion cataMineRegion, CataMineComposition cataMineComposition, CataMineBlock cataMineBlock, BlockBreakEvent blockBreakEvent) {
+        this(cataMine, cataMineRegion, cataMineComposition, cataMineBlock, blockBreakEvent.getBlock(), blockBreakEvent.getPlayer(), blockBreakEvent);
+    }
+
+    public CataMineBlockBreakEvent(CataMine cataMine, CataMineRegion cataMineRegion, CataMineComposition cataMineComposition, CataMineBlock cataMineBlock,
+                                   Block block, @Nullable Player player, @Nullable BlockBreakEvent blockBreakEvent) {
         this.cataMine = cataMine;
         this.cataMineRegion = cataMineRegion;
         this.cataMineComposition = cataMineComposition;
         this.cataMineBlock = cataMineBlock;
+        this.block = block;
+        this.player = player;
         this.blockBreakEvent = blockBreakEvent;
     }
 
@@ -58,6 +75,26 @@ public class CataMineBlockBreakEvent extends Event implements Cancellable {
         return cataMineBlock;
     }
 
+    public Block getBlock() {
+        return block;
+    }
+
+    /**
+     * Gets the player who broke the block.
+     *
+     * @return the player, null if the block was not broken by a player
+     */
+    @Nullable
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the underlying break event.
+     *
+     * @return the break event, null if the block was broken by an explosion
+     */
+    @Nullable
     public BlockBreakEvent getBlockBreakEvent() {
         return blockBreakEvent;
     }
@@ -0,0 +1,123 @@
+package me.catalysmrl.catamines.api.events;
+
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.mine.components.composition.CataMineBlock;
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Called once for many mine blocks broken at the same time, e.g. by an
+ * explosion. The blocks are grouped by the region and composition they
+ * belong to. Cancelling this event keeps all of the mine blocks from
+ * breaking.
+ */
+public class CataMineBlocksBreakEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLER_LIST = new HandlerList();
+
+    private boolean isCancelled;
+
+    private final List<BlockGroup> groups;
+    private final Player player;
+    private final Event cause;
+
+    @NotNull
+    public static HandlerList getHandlerList() {
+        return HANDLER_LIST;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLER_LIST;
+    }
+
+    public CataMineBlocksBreakEvent(List<BlockGroup> groups, @Nullable Player player, @Nullable Event cause) {
+        this.groups = Collections.unmodifiableList(groups);
+        this.player = player;
+        this.cause = cause;
+    }
+
+    /**
+     * Gets the broken blocks, grouped by region and composition.
+     *
+     * @return the unmodifiable groups
+     */
+    public List<BlockGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Gets the number of broken blocks in all groups.
+     *
+     * @return the number of blocks
+     */
+    public int getBlockCount() {
+        int count = 0;
+        for (BlockGroup group : groups) {
+            count += group.blocks().size();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the player responsible for breaking the blocks.
+     *
+     * @return the player, null if unknown
+     */
+    @Nullable
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the event that broke the blocks, e.g. an EntityExplodeEvent.
+     *
+     * @return the cause, null if the blocks were broken through the API
+     */
+    @Nullable
+    public Event getCause() {
+        return cause;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.isCancelled = cancel;
+    }
+
+    /**
+     * The blocks of one composition of a region broken at once.
+     *
+     * @param mine        the mine of the region
+     * @param region      the region containing the blocks
+     * @param composition the composition the blocks belong to
+     * @param blocks      the broken blocks
+     */
+    public record BlockGroup(CataMine mine, CataMineRegion region, CataMineComposition composition,
+                             List<BrokenBlock> blocks) {
+    }
+
+    /**
+     * A broken block together with the composition block it was placed from.
+     *
+     * @param block         the block in the world
+     * @param cataMineBlock the matching composition block
+     */
+    public record BrokenBlock(Block block, CataMineBlock cataMineBlock) {
+    }
+}
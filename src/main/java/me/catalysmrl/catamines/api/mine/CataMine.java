@@ -6,6 +6,8 @@ import me.catalysmrl.catamines.mine.components.manager.choice.ChoiceManager;
 import me.catalysmrl.catamines.mine.components.manager.controller.CataMineController;
 import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A regenerating mine. The user of this interface has precise
  * control over manipulating this mine.
@@ -31,7 +33,32 @@ public interface CataMine extends SectionSerializable {
      */
     void tick();
 
-    void reset(CataMines plugin);
+    /**
+     * Queues the upcoming region of this mine for a scheduled reset.
+     *
+     * @param plugin the plugin instance
+     * @return the future completed once the reset is applied
+     * @see #reset(CataMines, ResetPriority)
+     */
+    default CompletableFuture<ResetResult> reset(CataMines plugin) {
+        return reset(plugin, ResetPriority.SCHEDULED);
+    }
+
+    /**
+     * Queues the upcoming region of this mine for reset. If a reset of
+     * the region is already pending, both resets are merged and complete
+     * the same future.
+     * <p>
+     * The future is completed on the thread that applied the reset, which
+     * is not necessarily the main thread. Use the Bukkit scheduler to get
+     * back to the main thread before interacting with the world. The future
+     * is cancelled if the plugin is disabled before the reset is applied.
+     *
+     * @param plugin   the plugin instance
+     * @param priority the priority of the reset
+     * @return the future completed once the reset is applied
+     */
+    CompletableFuture<ResetResult> reset(CataMines plugin, ResetPriority priority);
 
     /**
      * Gets the name of the mine which is used as a unique identifier.
@@ -0,0 +1,33 @@
+package me.catalysmrl.catamines.api.mine;
+
+/**
+ * The priority of a queued reset. Resets with a higher priority are
+ * applied first, resets with the same priority in the order they were queued.
+ */
+public enum ResetPriority {
+
+    /**
+     * Reset requested manually, e.g. by a command
+     */
+    MANUAL,
+
+    /**
+     * Scheduled reset of a region with players nearby
+     */
+    PLAYERS_NEARBY,
+
+    /**
+     * Scheduled reset, e.g. by the countdown of a mine
+     */
+    SCHEDULED;
+
+    /**
+     * Returns true if this priority is higher than the other one.
+     *
+     * @param other the priority to compare to
+     * @return true if this priority is higher
+     */
+    public boolean isHigherThan(ResetPriority other) {
+        return ordinal() < other.ordinal();
+    }
+}
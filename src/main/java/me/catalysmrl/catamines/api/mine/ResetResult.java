@@ -0,0 +1,139 @@
+package me.catalysmrl.catamines.api.mine;
+
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The outcome of a finished reset, as returned by
+ * {@link CataMine#reset(me.catalysmrl.catamines.CataMines, ResetPriority)}.
+ */
+public final class ResetResult {
+
+    private final Status status;
+    private final CataMineRegion region;
+    private final CataMineComposition composition;
+    private final ResetPriority priority;
+    private final long blocksChanged;
+    private final long queueWaitNanos;
+    private final long fillNanos;
+    private final boolean differential;
+
+    public ResetResult(Status status, @Nullable CataMineRegion region, @Nullable CataMineComposition composition,
+                       ResetPriority priority, long blocksChanged, long queueWaitNanos, long fillNanos, boolean differential) {
+        this.status = status;
+        this.region = region;
+        this.composition = composition;
+        this.priority = priority;
+        this.blocksChanged = blocksChanged;
+        this.queueWaitNanos = queueWaitNanos;
+        this.fillNanos = fillNanos;
+        this.differential = differential;
+    }
+
+    /**
+     * Creates the result of a reset request of a mine without any region.
+     *
+     * @param priority the requested priority
+     * @return a skipped result
+     */
+    public static ResetResult nothingToReset(ResetPriority priority) {
+        return new ResetResult(Status.SKIPPED, null, null, priority, 0, 0, 0, false);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the region that was reset.
+     *
+     * @return the region, empty if the mine had no region to reset
+     */
+    public Optional<CataMineRegion> getRegion() {
+        return Optional.ofNullable(region);
+    }
+
+    /**
+     * Gets the composition the region was filled with.
+     *
+     * @return the composition, empty for regions without compositions or if nothing was filled
+     */
+    public Optional<CataMineComposition> getComposition() {
+        return Optional.ofNullable(composition);
+    }
+
+    /**
+     * Gets the priority the reset was applied with. If several requests
+     * were merged, this is the highest of them.
+     *
+     * @return the priority
+     */
+    public ResetPriority getPriority() {
+        return priority;
+    }
+
+    public long getBlocksChanged() {
+        return blocksChanged;
+    }
+
+    /**
+     * Gets the time from queueing the reset until it started being applied.
+     *
+     * @return the time spent in the queue
+     */
+    public Duration getQueueWait() {
+        return Duration.ofNanos(queueWaitNanos);
+    }
+
+    /**
+     * Gets the time spent applying the reset. Resets spread over several
+     * ticks only count the time actually spent filling.
+     *
+     * @return the fill time
+     */
+    public Duration getFillTime() {
+        return Duration.ofNanos(fillNanos);
+    }
+
+    /**
+     * Returns true if only blocks changed since the last reset were
+     * rewritten.
+     *
+     * @return true if the fill was differential
+     */
+    public boolean isDifferential() {
+        return differential;
+    }
+
+    @Override
+    public String toString() {
+        return "ResetResult{" +
+                "status=" + status +
+                ", region=" + (region == null ? null : region.getName()) +
+                ", priority=" + priority +
+                ", blocksChanged=" + blocksChanged +
+                ", queueWait=" + getQueueWait().toMillis() + "ms" +
+                ", fillTime=" + getFillTime().toMillis() + "ms" +
+                ", differential=" + differential +
+                '}';
+    }
+
+    public enum Status {
+        /**
+         * The region was filled completely
+         */
+        COMPLETED,
+        /**
+         * Filling the region was aborted, e.g. because the change limit was hit
+         */
+        ABORTED,
+        /**
+         * Nothing was filled, e.g. because the world was not loaded or the region has nothing to fill
+         */
+        SKIPPED
+    }
+}
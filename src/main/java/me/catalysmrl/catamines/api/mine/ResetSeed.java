@@ -0,0 +1,59 @@
+package me.catalysmrl.catamines.api.mine;
+
+import me.catalysmrl.catamines.utils.random.CounterRandom;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The seed of a single reset of a seeded mine, derived from the seed of
+ * the mine and its reset counter. Every random decision of the reset is
+ * derived from it, so the same seed always produces the same region,
+ * composition and blocks.
+ *
+ * @param value the seed of the reset
+ */
+public record ResetSeed(long value) {
+
+    private static final long REGION_STREAM = 1;
+    private static final long COMPOSITION_STREAM = 2;
+    private static final long BLOCK_STREAM = 3;
+
+    /**
+     * Derives the seed of a reset of a mine.
+     *
+     * @param mineSeed   the seed of the mine
+     * @param resetCount the number of the reset
+     * @return the seed of the reset
+     */
+    public static ResetSeed of(long mineSeed, long resetCount) {
+        return new ResetSeed(CounterRandom.hash(mineSeed, resetCount));
+    }
+
+    /**
+     * Gets the generator choosing the region to reset.
+     *
+     * @return a new generator
+     */
+    public RandomGenerator regionRandom() {
+        return new CounterRandom(CounterRandom.hash(value, REGION_STREAM));
+    }
+
+    /**
+     * Gets the generator choosing the composition to fill the region with.
+     *
+     * @return a new generator
+     */
+    public RandomGenerator compositionRandom() {
+        return new CounterRandom(CounterRandom.hash(value, COMPOSITION_STREAM));
+    }
+
+    /**
+     * Gets the seed the blocks of the region are derived from, together
+     * with their positions.
+     *
+     * @return the block seed
+     */
+    public long blockSeed() {
+        return CounterRandom.hash(value, BLOCK_STREAM);
+    }
+}
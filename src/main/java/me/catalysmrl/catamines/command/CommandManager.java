@@ -4,9 +4,11 @@ import com.google.common.collect.ImmutableMap;
 import me.catalysmrl.catamines.CataMines;
 import me.catalysmrl.catamines.command.abstraction.Command;
 import me.catalysmrl.catamines.command.abstraction.CommandException;
+import me.catalysmrl.catamines.commands.generic.BenchmarkCommand;
 import me.catalysmrl.catamines.commands.generic.HelpCommand;
 import me.catalysmrl.catamines.commands.generic.ListCommand;
 import me.catalysmrl.catamines.commands.generic.ReloadCommand;
+import me.catalysmrl.catamines.commands.generic.StatusCommand;
 import me.catalysmrl.catamines.commands.mine.generic.*;
 import me.catalysmrl.catamines.commands.mine.regions.RegionsCommand;
 import me.catalysmrl.catamines.utils.message.Message;
@@ -33,6 +35,8 @@ public class CommandManager implements TabExecutor {
                 .put("help", new HelpCommand())
                 .put("list", new ListCommand())
                 .put("reload", new ReloadCommand())
+                .put("status", new StatusCommand())
+                .put("benchmark", new BenchmarkCommand())
                 .put("info", new InfoCommand())
                 .put("debug", new DebugCommand())
                 .put("create", new CreateCommand())
@@ -42,6 +46,7 @@ public class CommandManager implements TabExecutor {
                 .put("rename", new RenameCommand())
                 .put("displayname", new DisplayNameCommand())
                 .put("timer", new TimerCommand())
+                .put("seed", new SeedCommand())
                 .put("regions", new RegionsCommand())
                 .build();
     }
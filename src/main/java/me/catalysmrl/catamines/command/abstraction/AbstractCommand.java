@@ -1,8 +1,12 @@
 package me.catalysmrl.catamines.command.abstraction;
 
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.utils.message.Message;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 /**
@@ -46,4 +50,30 @@ public abstract class AbstractCommand implements Command {
     public boolean isAuthorized(CommandSender sender) {
         return permission == null || sender.hasPermission(permission);
     }
+
+    /**
+     * Sends a message on the main thread if a background operation started
+     * by the command fails, e.g. writing the changed mine.
+     *
+     * @param plugin the plugin
+     * @param sender the sender of the command
+     * @param future the future of the operation
+     * @param message the message to send on failure
+     * @param args the arguments of the message
+     */
+    protected static void sendOnFailure(CataMines plugin, CommandSender sender, CompletableFuture<?> future, Message message, Object... args) {
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null) runSync(plugin, () -> message.send(sender, args));
+        });
+    }
+
+    /**
+     * Runs a task on the main thread, unless the plugin was disabled meanwhile.
+     *
+     * @param plugin the plugin
+     * @param task the task to run
+     */
+    protected static void runSync(CataMines plugin, Runnable task) {
+        if (plugin.isEnabled()) Bukkit.getScheduler().runTask(plugin, task);
+    }
 }
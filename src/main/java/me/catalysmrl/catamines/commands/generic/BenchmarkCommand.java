@@ -0,0 +1,222 @@
+package me.catalysmrl.catamines.commands.generic;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.command.abstraction.AbstractCommand;
+import me.catalysmrl.catamines.command.abstraction.CommandException;
+import me.catalysmrl.catamines.mine.components.region.EditSessionSettings;
+import me.catalysmrl.catamines.utils.helper.CompatibilityProvider;
+import me.catalysmrl.catamines.utils.message.Messages;
+import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.util.StringUtil;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures parts of the reset engine on the running server. Benchmarks
+ * run off the main thread and only edit scratch clipboards, never worlds.
+ */
+public class BenchmarkCommand extends AbstractCommand {
+
+    private static final List<String> MODES = List.of("editsession");
+    private static final int DEFAULT_SIZE = 64;
+    private static final int MAX_SIZE = 256;
+    private static final int DEFAULT_RUNS = 5;
+    private static final int WARMUP_RUNS = 3;
+
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    public BenchmarkCommand() {
+        super("benchmark", "catamines.benchmark", integer -> integer >= 1, false);
+    }
+
+    @Override
+    public void execute(CataMines plugin, CommandSender sender, List<String> args) throws CommandException {
+        switch (args.get(0).toLowerCase(Locale.ROOT)) {
+            case "editsession" -> benchmarkEditSession(plugin, sender, args.subList(1, args.size()));
+            default -> Messages.send(sender, "&cUnknown benchmark. Usage: &f" + getUsage());
+        }
+    }
+
+    /**
+     * Fills a scratch clipboard with WorldEdit's default session settings
+     * and with the settings of mines, reporting time and memory of both.
+     * Both settings are warmed up first and measured in alternating order.
+     */
+    private void benchmarkEditSession(CataMines plugin, CommandSender sender, List<String> args) {
+        if (!CompatibilityProvider.isFaweEnabled()) {
+            Messages.send(sender, "&cThe edit session benchmark needs FastAsyncWorldEdit.");
+            return;
+        }
+
+        int size = parseNumber(sender, args, 0, DEFAULT_SIZE, MAX_SIZE);
+        if (size < 1) return;
+        int runs = parseNumber(sender, args, 1, DEFAULT_RUNS, Integer.MAX_VALUE);
+        if (runs < 1) return;
+
+        if (!running.compareAndSet(false, true)) {
+            Messages.send(sender, "&cA benchmark is already running.");
+            return;
+        }
+
+        World world = BukkitAdapter.adapt(Bukkit.getWorlds().get(0));
+        Messages.send(sender, "&7Filling a &f" + size + "³ &7clipboard &f" + runs + " &7times per setting...");
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Result[] results = measureFills(world, size, runs);
+                runSync(plugin, () -> Messages.send(sender,
+                        "&bWorldEdit defaults: &f" + results[0].format(),
+                        "&bMine defaults: &f" + results[1].format() + " &7" + EditSessionSettings.MINE_DEFAULTS));
+            } catch (RuntimeException exception) {
+                exception.printStackTrace();
+                runSync(plugin, () -> Messages.send(sender, "&cThe benchmark failed: &f" + exception.getMessage()));
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private Result[] measureFills(World world, int size, int runs) {
+        EditSessionSettings[] settings = {EditSessionSettings.WORLDEDIT_DEFAULTS, EditSessionSettings.MINE_DEFAULTS};
+        Result[] results = {new Result(), new Result()};
+
+        CuboidRegion scratch = new CuboidRegion(world, BlockVector3.ZERO, BlockVector3.at(size - 1, size - 1, size - 1));
+        Clipboard clipboard = new BlockArrayClipboard(scratch);
+        try {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                for (EditSessionSettings setting : settings) {
+                    fill(world, clipboard, setting, null);
+                }
+            }
+
+            for (int i = 0; i < runs; i++) {
+                // alternate the order, so neither setting always runs on a freshly collected heap
+                for (int j = 0; j < settings.length; j++) {
+                    int index = i % 2 == 0 ? j : settings.length - 1 - j;
+                    fill(world, clipboard, settings[index], results[index]);
+                }
+            }
+        } finally {
+            clipboard.close();
+        }
+        return results;
+    }
+
+    /**
+     * Fills the whole clipboard with the block it does not contain yet, so
+     * every fill changes every block.
+     */
+    private void fill(World world, Clipboard clipboard, EditSessionSettings settings, Result result) {
+        BlockVector3 origin = clipboard.getMinimumPoint();
+        BlockState block = Objects.equals(clipboard.getBlock(origin).getBlockType(), BlockTypes.STONE)
+                ? Objects.requireNonNull(BlockTypes.COBBLESTONE).getDefaultState()
+                : Objects.requireNonNull(BlockTypes.STONE).getDefaultState();
+
+        long heapBefore = usedHeap();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long blocks = 0;
+
+        try (EditSession editSession = WorldEditUtils.newEditSession(world, clipboard, settings)) {
+            blocks = editSession.setBlocks(clipboard.getRegion(), block);
+        } catch (MaxChangedBlocksException exception) {
+            exception.printStackTrace();
+        }
+
+        if (result == null) return;
+        result.runs++;
+        result.nanos += System.nanoTime() - start;
+        result.allocated += allocatedBytes() - allocatedBefore;
+        result.heapDelta += usedHeap() - heapBefore;
+        result.blocks += blocks;
+    }
+
+    private static int parseNumber(CommandSender sender, List<String> args, int index, int defaultValue, int max) {
+        if (args.size() <= index) return defaultValue;
+
+        try {
+            int number = Integer.parseInt(args.get(index));
+            if (number >= 1 && number <= max) return number;
+        } catch (NumberFormatException ignored) {
+        }
+
+        Messages.send(sender, "&6" + args.get(index) + " &cis not a number between 1 and " + max + ".");
+        return -1;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread so far, or 0 if the
+     * JVM does not support measuring it.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean && sunThreadBean.isThreadAllocatedMemorySupported()) {
+            return sunThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000d);
+    }
+
+    private static String formatMegabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.2f", bytes / (1024d * 1024d));
+    }
+
+    @Override
+    public List<String> tabComplete(CataMines plugin, CommandSender sender, List<String> args) {
+        if (args.size() == 1) return StringUtil.copyPartialMatches(args.get(0), MODES, new ArrayList<>());
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Benchmarks the reset engine";
+    }
+
+    @Override
+    public String getUsage() {
+        return "/cm benchmark editsession [size] [runs]";
+    }
+
+    private static class Result {
+
+        private int runs;
+        private long nanos;
+        private long allocated;
+        private long heapDelta;
+        private long blocks;
+
+        String format() {
+            return formatMillis(nanos / runs) + " ms/fill"
+                    + " &7| &f" + blocks / runs + " &7blocks"
+                    + " &7| allocated &f" + formatMegabytes(allocated / runs) + " MB"
+                    + " &7| heap delta &f" + formatMegabytes(heapDelta / runs) + " MB";
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package me.catalysmrl.catamines.commands.generic;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.command.abstraction.AbstractCommand;
+import me.catalysmrl.catamines.command.abstraction.CommandException;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.managers.blockmanagers.BlockApplicator;
+import me.catalysmrl.catamines.managers.blockmanagers.ResetQueue;
+import me.catalysmrl.catamines.managers.blockmanagers.ResetThrottle;
+import me.catalysmrl.catamines.utils.message.Messages;
+import me.catalysmrl.catamines.utils.worldedit.SchematicCache;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+import java.util.Locale;
+
+public class StatusCommand extends AbstractCommand {
+    public StatusCommand() {
+        super("status", "catamines.status", integer -> integer == 0, false);
+    }
+
+    @Override
+    public void execute(CataMines plugin, CommandSender sender, List<String> args) throws CommandException {
+        BlockApplicator applicator = plugin.getMineManager().getBlockApplicator();
+        ResetThrottle throttle = applicator.getThrottle();
+        ResetQueue queue = applicator.getResetQueue();
+
+        Messages.send(sender,
+                "&bBlock applicator: &f" + applicator.getClass().getSimpleName(),
+                "&bThrottle state: &f" + throttle.getState(),
+                "&bTick budget: &f" + formatMillis(throttle.getBudgetNanos()) + " &7/ &f" + formatMillis(throttle.getMaxBudgetNanos()) + " ms",
+                "&bMSPT: &f" + String.format(Locale.ROOT, "%.2f", throttle.getMspt()) + (throttle.isPaperTickTime() ? "" : " &7(estimated)"),
+                "&bQueued resets: &f" + queue.size()
+                        + " &7(manual: &f" + queue.size(ResetPriority.MANUAL)
+                        + "&7, players nearby: &f" + queue.size(ResetPriority.PLAYERS_NEARBY)
+                        + "&7, scheduled: &f" + queue.size(ResetPriority.SCHEDULED) + "&7)",
+                "&bMerged requests: &f" + queue.getMergedCount(),
+                "&bActive resets: &f" + applicator.getActiveJobs(),
+                "&bFills per second: &f" + String.format(Locale.ROOT, "%.2f", applicator.getFillsPerSecond()),
+                "&bEdit sessions: &f" + applicator.getSessionsOpened()
+                        + " &7(avoided: &f" + applicator.getSessionsAvoided()
+                        + "&7, batching: &f" + (applicator.isBatchingSessions() ? "on" : "off") + "&7)",
+                "&bIndexed regions: &f" + plugin.getMineManager().getRegionIndex().size(),
+                "&bCached schematics: &f" + SchematicCache.size()
+                        + " &7(~&f" + SchematicCache.getMemoryUsage() / (1024 * 1024) + " MB&7)");
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000d);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shows the state of the reset engine";
+    }
+
+    @Override
+    public String getUsage() {
+        return "/cm status";
+    }
+}
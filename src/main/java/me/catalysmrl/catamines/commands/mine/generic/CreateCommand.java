@@ -14,7 +14,6 @@ import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.io.IOException;
 import java.util.List;
 
 public class CreateCommand extends AbstractCommand {
@@ -55,11 +54,7 @@ public class CreateCommand extends AbstractCommand {
         plugin.getMineManager().registerMine(cataMine);
         Message.CREATE_SUCCESS.send(sender, name);
 
-        try {
-            plugin.getMineManager().saveMine(cataMine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender, name);
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(cataMine), Message.MINE_SAVE_EXCEPTION, cataMine.getName());
     }
 
     @Override
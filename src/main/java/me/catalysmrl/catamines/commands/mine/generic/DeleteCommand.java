@@ -6,7 +6,6 @@ import me.catalysmrl.catamines.command.abstraction.mine.AbstractMineCommand;
 import me.catalysmrl.catamines.utils.message.Message;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
 import java.util.List;
 
 public class DeleteCommand extends AbstractMineCommand {
@@ -17,13 +16,7 @@ public class DeleteCommand extends AbstractMineCommand {
     @Override
     public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine) {
 
-        try {
-            plugin.getMineManager().deleteMine(mine);
-        } catch (IOException e) {
-            Message.DELETE_EXCEPTION.send(sender);
-            return;
-        }
-
+        sendOnFailure(plugin, sender, plugin.getMineManager().deleteMine(mine), Message.MINE_DELETE_EXCEPTION, mine.getName());
         Message.DELETE_SUCCESS.send(sender, mine.getName());
     }
 
@@ -6,7 +6,6 @@ import me.catalysmrl.catamines.command.abstraction.mine.AbstractMineCommand;
 import me.catalysmrl.catamines.utils.message.Message;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
 import java.util.List;
 
 public class DisplayNameCommand extends AbstractMineCommand {
@@ -24,11 +23,7 @@ public class DisplayNameCommand extends AbstractMineCommand {
 
         Message.DISPLAYNAME_SUCCESS.send(sender, oldDisplayName, displayName);
 
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender, mine.getName());
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
     }
 
     @Override
@@ -6,9 +6,6 @@ import me.catalysmrl.catamines.command.abstraction.mine.AbstractMineCommand;
 import me.catalysmrl.catamines.utils.message.Message;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
 
 public class RenameCommand extends AbstractMineCommand {
@@ -20,25 +17,25 @@ public class RenameCommand extends AbstractMineCommand {
     public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine) {
 
         String oldMineName = mine.getName();
-
-        mine.setName(args.get(0));
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender, mine.getName());
-            mine.setName(oldMineName);
-            return;
-        }
-
-        Path mineFileToDelete = plugin.getMineManager().getMinesPath().resolve(oldMineName + ".yml");
-        try {
-            Files.delete(mineFileToDelete);
-        } catch (IOException e) {
-            Message.MINE_DELETE_EXCEPTION.send(sender, mine.getName());
-            return;
-        }
-
-        Message.RENAME_SUCCESS.send(sender, oldMineName, mine.getName());
+        String newMineName = args.get(0);
+
+        mine.setName(newMineName);
+        // the old file is only deleted once the new one is written
+        plugin.getMineManager().saveMine(mine).whenComplete((saved, saveThrowable) -> runSync(plugin, () -> {
+            if (saveThrowable != null) {
+                Message.MINE_SAVE_EXCEPTION.send(sender, newMineName);
+                if (mine.getName().equals(newMineName)) mine.setName(oldMineName);
+                return;
+            }
+
+            plugin.getMineManager().getMineWriter().delete(oldMineName).whenComplete((deleted, deleteThrowable) -> runSync(plugin, () -> {
+                if (deleteThrowable != null) {
+                    Message.MINE_DELETE_EXCEPTION.send(sender, newMineName);
+                } else {
+                    Message.RENAME_SUCCESS.send(sender, oldMineName, newMineName);
+                }
+            }));
+        }));
     }
 
     @Override
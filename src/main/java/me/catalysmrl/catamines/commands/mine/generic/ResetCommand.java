@@ -2,9 +2,11 @@ package me.catalysmrl.catamines.commands.mine.generic;
 
 import me.catalysmrl.catamines.CataMines;
 import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
 import me.catalysmrl.catamines.command.abstraction.mine.AbstractMineCommand;
 import me.catalysmrl.catamines.utils.helper.Predicates;
 import me.catalysmrl.catamines.utils.message.Message;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 
 import java.util.List;
@@ -23,8 +25,10 @@ public class ResetCommand extends AbstractMineCommand {
         }
 
         // TODO: Silent resetting and other flags
-        mine.reset(plugin);
-        Message.RESET_SUCCESS.send(sender, mine.getName());
+        mine.reset(plugin, ResetPriority.MANUAL).thenAccept(result -> {
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> Message.RESET_SUCCESS.send(sender, mine.getName()));
+        });
     }
 
     @Override
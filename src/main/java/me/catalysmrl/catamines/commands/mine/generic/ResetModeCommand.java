@@ -8,7 +8,6 @@ import me.catalysmrl.catamines.utils.helper.Predicates;
 import me.catalysmrl.catamines.utils.message.Message;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
 import java.util.List;
 
 public class ResetModeCommand extends AbstractMineCommand {
@@ -30,11 +29,7 @@ public class ResetModeCommand extends AbstractMineCommand {
 
         mine.getController().setResetMode(resetMode);
 
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender);
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
     }
 
     @Override
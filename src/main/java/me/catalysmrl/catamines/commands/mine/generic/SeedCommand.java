@@ -0,0 +1,48 @@
+package me.catalysmrl.catamines.commands.mine.generic;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.command.abstraction.mine.AbstractMineCommand;
+import me.catalysmrl.catamines.utils.helper.Predicates;
+import me.catalysmrl.catamines.utils.message.Message;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+public class SeedCommand extends AbstractMineCommand {
+
+    public SeedCommand() {
+        super("seed", "catamines.seed", Predicates.inRange(1, 1), false);
+    }
+
+    @Override
+    public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine) {
+
+        Long seed;
+        if (args.get(0).equalsIgnoreCase("off")) {
+            seed = null;
+        } else {
+            try {
+                seed = Long.parseLong(args.get(0));
+            } catch (NumberFormatException e) {
+                Message.SEED_INVALID.send(sender, args.get(0));
+                return;
+            }
+        }
+
+        mine.getController().setSeed(seed);
+        Message.SEED_SUCCESS.send(sender);
+
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
+    }
+
+    @Override
+    public String getDescription() {
+        return null;
+    }
+
+    @Override
+    public String getUsage() {
+        return "/cm seed <mine> <seed|off>";
+    }
+}
@@ -13,7 +13,6 @@ import me.catalysmrl.catamines.utils.message.Message;
 import me.catalysmrl.catamines.utils.worldedit.BaseBlockParser;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,11 +77,7 @@ public class SetCommand extends AbstractMineCommand {
 
         Message.SET_SUCCESS.send(sender, args.get(0), block.getChance(), mine.getName());
 
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender, mine.getName());
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
     }
 
     @Override
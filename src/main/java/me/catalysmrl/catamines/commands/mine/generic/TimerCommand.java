@@ -7,7 +7,6 @@ import me.catalysmrl.catamines.utils.helper.Predicates;
 import me.catalysmrl.catamines.utils.message.Message;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 
@@ -50,11 +49,7 @@ public class TimerCommand extends AbstractMineCommand {
         mine.getController().setResetDelay(timeToSetInSeconds);
         Message.TIMER_SUCCESS.send(sender);
 
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender);
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
     }
 
     @Override
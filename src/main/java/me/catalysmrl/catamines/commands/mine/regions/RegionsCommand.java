@@ -5,6 +5,8 @@ import me.catalysmrl.catamines.command.abstraction.mine.AbstractMineCommand;
 import me.catalysmrl.catamines.command.abstraction.mine.ParentMineCommand;
 import me.catalysmrl.catamines.commands.mine.regions.subcommands.RegionCreateCommand;
 import me.catalysmrl.catamines.commands.mine.regions.subcommands.RegionDeleteCommand;
+import me.catalysmrl.catamines.commands.mine.regions.subcommands.RegionEditSessionCommand;
+import me.catalysmrl.catamines.commands.mine.regions.subcommands.RegionFillModeCommand;
 import me.catalysmrl.catamines.commands.mine.regions.subcommands.RegionResetCommand;
 
 public class RegionsCommand extends ParentMineCommand {
@@ -14,6 +16,8 @@ public class RegionsCommand extends ParentMineCommand {
                 .add(new RegionCreateCommand())
                 .add(new RegionDeleteCommand())
                 .add(new RegionResetCommand())
+                .add(new RegionFillModeCommand())
+                .add(new RegionEditSessionCommand())
                 .build());
     }
 
@@ -13,7 +13,6 @@ import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -40,14 +39,10 @@ public class RegionCreateCommand extends AbstractMineCommand {
 
         CataMineRegion region = new SelectionRegion(regionName, regionSelector);
         region.getCompositionManager().add(new CataMineComposition("default"));
-        mine.getRegionManager().add(region);
+        plugin.getMineManager().addRegion(mine, region);
         Message.REGION_CREATE_SUCCESS.send(sender);
 
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender, mine.getName());
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
     }
 
     @Override
@@ -7,7 +7,6 @@ import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
 import me.catalysmrl.catamines.utils.message.Message;
 import org.bukkit.command.CommandSender;
 
-import java.io.IOException;
 import java.util.List;
 
 public class RegionDeleteCommand extends AbstractRegionCommand {
@@ -17,13 +16,9 @@ public class RegionDeleteCommand extends AbstractRegionCommand {
 
     @Override
     public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine, CataMineRegion region) {
-        mine.getRegionManager().remove(region);
+        plugin.getMineManager().removeRegion(mine, region);
         Message.REGION_DELETE_SUCCESS.send(sender);
-        try {
-            plugin.getMineManager().saveMine(mine);
-        } catch (IOException e) {
-            Message.MINE_SAVE_EXCEPTION.send(sender, mine.getName());
-        }
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
     }
 
     @Override
@@ -0,0 +1,74 @@
+package me.catalysmrl.catamines.commands.mine.regions.subcommands;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.command.abstraction.mine.region.AbstractRegionCommand;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.mine.components.region.EditSessionSettings;
+import me.catalysmrl.catamines.utils.message.Message;
+import org.bukkit.command.CommandSender;
+import org.bukkit.util.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public class RegionEditSessionCommand extends AbstractRegionCommand {
+    public RegionEditSessionCommand() {
+        super("editsession", "catamines.regions.editsession", i -> i == 3 || i == 4, false);
+    }
+
+    @Override
+    public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine, CataMineRegion region) {
+        String option = args.get(0).toLowerCase(Locale.ROOT);
+
+        if (option.equals("default")) {
+            region.setEditSessionSettings(null);
+            Message.REGION_EDITSESSION_DEFAULT.send(sender, region.getName());
+        } else {
+            if (args.size() != 2 || !Arrays.asList(EditSessionSettings.OPTIONS).contains(option)) {
+                Message.REGION_EDITSESSION_INVALID.send(sender, args.get(0));
+                return;
+            }
+
+            String value = args.get(1).toLowerCase(Locale.ROOT);
+            if (!value.equals("true") && !value.equals("false")) {
+                Message.REGION_EDITSESSION_INVALID.send(sender, args.get(1));
+                return;
+            }
+
+            boolean enabled = Boolean.parseBoolean(value);
+            region.setEditSessionSettings(region.getEditSessionSettings().with(option, enabled));
+            Message.REGION_EDITSESSION_SUCCESS.send(sender, option, region.getName(), enabled);
+        }
+
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
+    }
+
+    @Override
+    public List<String> tabComplete(CataMines plugin, CommandSender sender, List<String> args, CataMine mine, CataMineRegion region) {
+        if (args.size() == 1) {
+            List<String> options = Stream.concat(Arrays.stream(EditSessionSettings.OPTIONS), Stream.of("default")).toList();
+            return StringUtil.copyPartialMatches(args.get(0), options, new ArrayList<>());
+        }
+
+        if (args.size() == 2 && !args.get(0).equalsIgnoreCase("default")) {
+            return StringUtil.copyPartialMatches(args.get(1), List.of("true", "false"), new ArrayList<>());
+        }
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getDescription() {
+        return Message.REGION_EDITSESSION_DESCRIPTION.getMessage();
+    }
+
+    @Override
+    public String getUsage() {
+        return "/cm regions <mine> editsession <name> <history|lighting|neighbors|physics|validation|default> [true|false]";
+    }
+}
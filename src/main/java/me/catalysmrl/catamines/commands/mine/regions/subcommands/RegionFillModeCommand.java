@@ -0,0 +1,55 @@
+package me.catalysmrl.catamines.commands.mine.regions.subcommands;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.command.abstraction.mine.region.AbstractRegionCommand;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.utils.message.Message;
+import org.bukkit.command.CommandSender;
+import org.bukkit.util.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class RegionFillModeCommand extends AbstractRegionCommand {
+    public RegionFillModeCommand() {
+        super("fillmode", "catamines.regions.fillmode", i -> i == 3, false);
+    }
+
+    @Override
+    public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine, CataMineRegion region) {
+        CataMineRegion.FillMode fillMode;
+        try {
+            fillMode = CataMineRegion.FillMode.valueOf(args.get(0).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Message.REGION_FILLMODE_INVALID.send(sender, args.get(0));
+            return;
+        }
+
+        region.setFillMode(fillMode);
+        Message.REGION_FILLMODE_SUCCESS.send(sender, region.getName(), fillMode);
+
+        sendOnFailure(plugin, sender, plugin.getMineManager().markDirty(mine), Message.MINE_SAVE_EXCEPTION, mine.getName());
+    }
+
+    @Override
+    public List<String> tabComplete(CataMines plugin, CommandSender sender, List<String> args, CataMine mine, CataMineRegion region) {
+        if (args.size() != 1) return Collections.emptyList();
+
+        List<String> fillModes = Arrays.stream(CataMineRegion.FillMode.values()).map(Enum::toString).toList();
+        return StringUtil.copyPartialMatches(args.get(0), fillModes, new ArrayList<>());
+    }
+
+    @Override
+    public String getDescription() {
+        return Message.REGION_FILLMODE_DESCRIPTION.getMessage();
+    }
+
+    @Override
+    public String getUsage() {
+        return "/cm regions <mine> fillmode <name> <FULL|CHANGED>";
+    }
+}
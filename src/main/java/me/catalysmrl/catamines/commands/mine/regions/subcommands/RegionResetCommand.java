@@ -2,6 +2,7 @@ package me.catalysmrl.catamines.commands.mine.regions.subcommands;
 
 import me.catalysmrl.catamines.CataMines;
 import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
 import me.catalysmrl.catamines.command.abstraction.mine.region.AbstractRegionCommand;
 import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
 import org.bukkit.command.CommandSender;
@@ -15,6 +16,6 @@ public class RegionResetCommand extends AbstractRegionCommand {
 
     @Override
     public void execute(CataMines plugin, CommandSender sender, List<String> args, CataMine mine, CataMineRegion region) {
-        plugin.getMineManager().resetRegion(region);
+        plugin.getMineManager().resetRegion(region, ResetPriority.MANUAL);
     }
 }
@@ -1,11 +1,15 @@
 package me.catalysmrl.catamines.listeners;
 
 import me.catalysmrl.catamines.managers.MineManager;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TNTPrimed;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 
 public class BlockListeners implements Listener {
 
@@ -20,8 +24,41 @@ public class BlockListeners implements Listener {
         mineManager.callBlockBreak(event);
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreakComplete(BlockBreakEvent event) {
+        mineManager.completeBlockBreak(event);
+    }
+
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
         mineManager.callBlockPlace(event);
     }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        Player player = null;
+        if (event.getEntity() instanceof TNTPrimed tnt && tnt.getSource() instanceof Player source) {
+            player = source;
+        }
+        if (mineManager.callBlocksBreak(event.blockList(), player, event, event.getYield())) {
+            event.setYield(0);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplodeComplete(EntityExplodeEvent event) {
+        mineManager.completeBlocksBreak(event.blockList(), event);
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        if (mineManager.callBlocksBreak(event.blockList(), null, event, event.getYield())) {
+            event.setYield(0);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplodeComplete(BlockExplodeEvent event) {
+        mineManager.completeBlocksBreak(event.blockList(), event);
+    }
 }
\ No newline at end of file
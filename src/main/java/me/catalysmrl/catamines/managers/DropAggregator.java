@@ -0,0 +1,162 @@
+package me.catalysmrl.catamines.managers;
+
+import me.catalysmrl.catamines.CataMines;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Buffers the loot of mine blocks per player and delivers it once per
+ * tick. Drops of the same player and a similar item are merged, so a
+ * player gets the items of a whole tick worth of blocks put into the
+ * inventory at once. Drops spawned on the ground are only merged if they
+ * dropped from the same block, so they still land where they dropped.
+ * <p>
+ * Has to be used from the main thread.
+ */
+public class DropAggregator {
+
+    private final CataMines plugin;
+    private final Delivery delivery;
+
+    private final Map<UUID, List<PendingDrop>> pending = new HashMap<>();
+    private BukkitTask flushTask;
+
+    public DropAggregator(CataMines plugin) {
+        this.plugin = plugin;
+        this.delivery = Delivery.parse(plugin.getConfig().getString("drops.delivery", "GROUND"));
+    }
+
+    /**
+     * Adds a drop for a player. It is merged with earlier drops of a
+     * similar item, from the same block if it is dropped on the ground,
+     * and delivered at the end of the tick.
+     *
+     * @param player   the player who broke the block, null if unknown
+     * @param location the location of the broken block
+     * @param template the dropped item, it is not modified or kept after delivery
+     * @param amount   the amount to drop, may exceed the maximum stack size
+     */
+    public void add(@Nullable Player player, Location location, ItemStack template, int amount) {
+        if (amount <= 0) return;
+
+        // drops without a player share the null key and are always dropped on the ground
+        UUID key = player == null ? null : player.getUniqueId();
+        boolean sameBlock = delivery == Delivery.GROUND || player == null;
+        List<PendingDrop> drops = pending.computeIfAbsent(key, uuid -> new ArrayList<>());
+        for (PendingDrop drop : drops) {
+            if (drop.matches(template, location, sameBlock)) {
+                drop.amount += amount;
+                return;
+            }
+        }
+        drops.add(new PendingDrop(template, location, amount));
+
+        if (flushTask == null) flushTask = Bukkit.getScheduler().runTask(plugin, this::flush);
+    }
+
+    /**
+     * Delivers all buffered drops right away.
+     */
+    public void flush() {
+        flushTask = null;
+        if (pending.isEmpty()) return;
+
+        for (Map.Entry<UUID, List<PendingDrop>> entry : pending.entrySet()) {
+            Player player = entry.getKey() == null ? null : Bukkit.getPlayer(entry.getKey());
+            for (PendingDrop drop : entry.getValue()) {
+                deliver(player, drop);
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Flushes the buffered drops and stops delivering on the next tick.
+     */
+    public void shutDown() {
+        if (flushTask != null) flushTask.cancel();
+        flush();
+    }
+
+    private void deliver(Player player, PendingDrop drop) {
+        boolean toInventory = delivery == Delivery.INVENTORY && player != null && player.isOnline()
+                && player.getWorld().equals(drop.location.getWorld());
+
+        int maxStackSize = drop.template.getMaxStackSize();
+        int amount = drop.amount;
+        while (amount > 0) {
+            ItemStack item = drop.template.clone();
+            item.setAmount(Math.min(amount, maxStackSize));
+            amount -= item.getAmount();
+
+            if (toInventory) {
+                // items not fitting into the inventory are dropped at the block
+                for (ItemStack overflow : player.getInventory().addItem(item).values()) {
+                    drop.location.getWorld().dropItemNaturally(drop.location, overflow);
+                }
+            } else {
+                drop.location.getWorld().dropItemNaturally(drop.location, item);
+            }
+        }
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    public enum Delivery {
+        /**
+         * Drops are spawned as item entities at the block they dropped from
+         */
+        GROUND,
+        /**
+         * Drops are put into the inventory of the player, overflow is dropped at the block
+         */
+        INVENTORY;
+
+        private static Delivery parse(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException exception) {
+                return GROUND;
+            }
+        }
+    }
+
+    private static final class PendingDrop {
+
+        private final ItemStack template;
+        private final Location location;
+        private int amount;
+
+        private PendingDrop(ItemStack template, Location location, int amount) {
+            this.template = template;
+            this.location = location;
+            this.amount = amount;
+        }
+
+        /**
+         * Loot templates are shared, so most drops match by identity and
+         * only differing templates are compared by their meta.
+         */
+        private boolean matches(ItemStack other, Location otherLocation, boolean sameBlock) {
+            if (location.getWorld() != otherLocation.getWorld()) return false;
+            if (sameBlock && (location.getBlockX() != otherLocation.getBlockX()
+                    || location.getBlockY() != otherLocation.getBlockY()
+                    || location.getBlockZ() != otherLocation.getBlockZ())) return false;
+
+            return template == other || template.isSimilar(other);
+        }
+    }
+}
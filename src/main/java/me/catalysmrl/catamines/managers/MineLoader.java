@@ -0,0 +1,184 @@
+package me.catalysmrl.catamines.managers;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.api.serialization.DeserializationException;
+import me.catalysmrl.catamines.mine.mines.AdvancedCataMine;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Loads the mines of a folder in two phases. The parse phase reads and
+ * parses the files on a pool of loader threads into {@link MineDescriptor}s,
+ * which hold nothing but the parsed configuration. The bind phase creates
+ * the mines from the descriptors on the main thread, which is where worlds
+ * and their WorldEdit adapters are resolved. Parsing the YAML is by far the
+ * most expensive part of loading, so the main thread only does the cheap part.
+ * <p>
+ * If enabled, files are read from their {@link MineSnapshot} while it matches
+ * the file, and a new snapshot is written for files without a matching one.
+ */
+public class MineLoader {
+
+    private final CataMines plugin;
+    private final int threads;
+    private final boolean snapshots;
+
+    public MineLoader(CataMines plugin) {
+        this.plugin = plugin;
+        this.snapshots = plugin.getConfig().getBoolean("loading.snapshots", true);
+        int configuredThreads = plugin.getConfig().getInt("loading.threads", 0);
+        threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Parses all mine files ending with '.yml' directly inside the folder
+     * in parallel. Files that cannot be read or parsed are logged and skipped.
+     *
+     * @param folder the folder to load the mines from
+     * @return a future completing with the parsed descriptors, on a loader thread
+     */
+    public CompletableFuture<ParseResult> parse(Path folder) {
+        Objects.requireNonNull(folder);
+        long start = System.nanoTime();
+
+        if (!Files.isDirectory(folder)) {
+            plugin.getLogger().severe("Path is not a directory: " + folder);
+            return CompletableFuture.completedFuture(new ParseResult(List.of(), 0, 0));
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(folder)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(".yml")).toList();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed loading directory: " + folder);
+            return CompletableFuture.completedFuture(new ParseResult(List.of(), 0, 0));
+        }
+
+        if (files.isEmpty()) return CompletableFuture.completedFuture(new ParseResult(List.of(), 0, System.nanoTime() - start));
+
+        int poolSize = Math.min(threads, files.size());
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "CataMines Loader #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService loaderPool = Executors.newFixedThreadPool(poolSize, threadFactory);
+
+        List<CompletableFuture<MineDescriptor>> futures = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> read(file), loaderPool))
+                .toList();
+
+        // handle instead of thenApply, so one failed file does not fail the files that parsed
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .handle((ignored, throwable) -> {
+                    List<MineDescriptor> descriptors = new ArrayList<>(futures.size());
+                    for (int i = 0; i < futures.size(); i++) {
+                        try {
+                            MineDescriptor descriptor = futures.get(i).join();
+                            if (descriptor != null) descriptors.add(descriptor);
+                        } catch (CompletionException e) {
+                            plugin.getLogger().log(Level.SEVERE, "Failed reading mine " + files.get(i).getFileName(), e.getCause());
+                        }
+                    }
+                    return new ParseResult(descriptors, poolSize, System.nanoTime() - start);
+                })
+                .whenComplete((result, throwable) -> loaderPool.shutdown());
+    }
+
+    /**
+     * Creates the mines of the parsed descriptors and logs how long loading
+     * took. Has to be called from the main thread.
+     *
+     * @param parsed the result of the parse phase
+     * @return the successfully created mines
+     */
+    public List<CataMine> bind(ParseResult parsed) {
+        long start = System.nanoTime();
+
+        List<CataMine> mines = new ArrayList<>(parsed.descriptors().size());
+        for (MineDescriptor descriptor : parsed.descriptors()) {
+            try {
+                mines.add(AdvancedCataMine.deserialize(plugin, descriptor.section()));
+            } catch (DeserializationException | RuntimeException e) {
+                plugin.getLogger().severe("Failed loading mine " + descriptor.file().getFileName() + ": " + e.getMessage());
+            }
+        }
+
+        long bindNanos = System.nanoTime() - start;
+        long fromSnapshots = parsed.descriptors().stream().filter(MineDescriptor::fromSnapshot).count();
+        plugin.getLogger().info(String.format("Loaded %d mines in %.1f ms (parse %.1f ms on %d threads with %d from snapshots, bind %.1f ms on the main thread)",
+                mines.size(), (parsed.parseNanos() + bindNanos) / 1e6, parsed.parseNanos() / 1e6, parsed.threads(), fromSnapshots, bindNanos / 1e6));
+        return mines;
+    }
+
+    private MineDescriptor read(Path file) {
+        try {
+            byte[] yaml = Files.readAllBytes(file);
+            Path snapshotFile = MineSnapshot.getSnapshotFile(file);
+            if (snapshots) {
+                Optional<YamlConfiguration> snapshot = MineSnapshot.read(snapshotFile, yaml);
+                if (snapshot.isPresent()) return new MineDescriptor(file, snapshot.get(), true);
+            }
+
+            YamlConfiguration config = new YamlConfiguration();
+            config.loadFromString(new String(yaml, StandardCharsets.UTF_8));
+            if (snapshots) writeSnapshot(snapshotFile, config, yaml);
+            return new MineDescriptor(file, config, false);
+        } catch (IOException | InvalidConfigurationException e) {
+            plugin.getLogger().severe("Failed reading mine " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed reading mine " + file.getFileName(), e);
+            return null;
+        }
+    }
+
+    private void writeSnapshot(Path snapshotFile, YamlConfiguration config, byte[] yaml) {
+        try {
+            MineSnapshot.write(snapshotFile, config, yaml);
+        } catch (IOException e) {
+            // the file is loaded from the YAML again next time
+            plugin.getLogger().warning("Failed writing snapshot " + snapshotFile.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * A parsed mine file, not bound to any world yet.
+     *
+     * @param file         the file the mine was read from
+     * @param section      the parsed configuration of the mine
+     * @param fromSnapshot whether the configuration was read from the snapshot of the file
+     */
+    public record MineDescriptor(Path file, ConfigurationSection section, boolean fromSnapshot) {
+    }
+
+    /**
+     * The result of the parse phase.
+     *
+     * @param descriptors the successfully parsed files
+     * @param threads     the number of threads the files were parsed on
+     * @param parseNanos  the time parsing took in nanoseconds
+     */
+    public record ParseResult(List<MineDescriptor> descriptors, int threads, long parseNanos) {
+    }
+}
@@ -1,33 +1,53 @@
 package me.catalysmrl.catamines.managers;
 
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BlockState;
 import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.events.CataMineBlockBreakEvent;
+import me.catalysmrl.catamines.api.events.CataMineBlocksBreakEvent;
 import me.catalysmrl.catamines.api.mine.CataMine;
-import me.catalysmrl.catamines.api.serialization.DeserializationException;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetResult;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.managers.blockmanagers.BlockApplicator;
 import me.catalysmrl.catamines.managers.blockmanagers.BukkitBlockApplicationManager;
 import me.catalysmrl.catamines.managers.blockmanagers.FastAsyncBlockApplicationManager;
+import me.catalysmrl.catamines.mine.components.composition.BlockMatch;
+import me.catalysmrl.catamines.mine.components.composition.CataMineBlock;
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.composition.drop.LootTable;
 import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
-import me.catalysmrl.catamines.mine.mines.AdvancedCataMine;
 import me.catalysmrl.catamines.utils.helper.CompatibilityProvider;
-import me.catalysmrl.catamines.utils.message.Message;
+import me.catalysmrl.catamines.utils.worldedit.SchematicCache;
 import org.bukkit.Bukkit;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class MineManager {
 
@@ -38,11 +58,22 @@ public class MineManager {
     private BlockApplicator blockApplicator;
 
     private final List<CataMine> mines = new ArrayList<>();
+    private final RegionIndex regionIndex = new RegionIndex();
+    private final DropAggregator dropAggregator;
+    private final MineWriter mineWriter;
+    private final MineLoader mineLoader;
+    private final MineStateJournal stateJournal;
+    private final Map<Event, PendingBreak> pendingBreaks = new WeakHashMap<>();
+    private final Map<BlockBreakEvent, PendingBlockBreak> pendingBlockBreaks = new WeakHashMap<>();
 
     public MineManager(CataMines plugin) {
         this.plugin = plugin;
         minesPath = plugin.getDataFolder().toPath().resolve("mines");
-        Bukkit.getScheduler().runTaskLater(plugin, () -> loadMinesFromFolder(minesPath), 2L);
+        dropAggregator = new DropAggregator(plugin);
+        mineWriter = new MineWriter(plugin, minesPath);
+        mineLoader = new MineLoader(plugin);
+        stateJournal = new MineStateJournal(plugin, plugin.getDataFolder().toPath().resolve("state.journal"));
+        loadMinesOnStartup(minesPath, 2L);
         start();
     }
 
@@ -54,14 +85,14 @@ public class MineManager {
     public void shutDown() {
         blockApplicator.cancel();
         minesTask.cancel();
+        dropAggregator.shutDown();
+        stateJournal.shutDown(mines);
 
-        for (CataMine mine : mines) {
-            try {
-                saveMine(mine);
-            } catch (IOException e) {
-                plugin.getLogger().severe(Message.MINE_SAVE_EXCEPTION.getMessage(mine.getName()));
-            }
-        }
+        // the runtime state of every mine changed, so all of them are written in parallel
+        mines.forEach(mineWriter::markDirty);
+        mineWriter.shutDown();
+
+        SchematicCache.clear();
     }
 
     /**
@@ -116,60 +147,82 @@ public class MineManager {
      * configured by the region.
      *
      * @param region the mine to reset
+     * @return the future completed once the reset is applied
      */
-    public void resetRegion(CataMineRegion region) {
-        blockApplicator.queueForReset(region);
+    public CompletableFuture<ResetResult> resetRegion(CataMineRegion region) {
+        return resetRegion(region, ResetPriority.SCHEDULED);
     }
 
     /**
-     * Attempts to load all mines from a directory and returns it as a
-     * List of CataMines. If the directory does not exist, is not a folder or
-     * does not contain any files ending with '.yml', then an empty
-     * ArrayList is returned. Otherwise, attempts to load mines from all files
-     * ending with '.yml' and containing the key 'Mine' in the root
-     * ConfigurationSection inside the directory. Note that only direct children
-     * files of the folder are affected. Another folder inside the folder will
-     * be ignored.
+     * Queues this region for reset with the given priority. Scheduled resets
+     * of regions with players nearby are upgraded to {@link ResetPriority#PLAYERS_NEARBY}.
+     * Has to be called from the main thread.
      *
-     * @param folder the path to load the mines from
-     * @return A list of successfully loaded mines of direct children paths
+     * @param region   the region to reset
+     * @param priority the priority of the reset
+     * @return the future completed once the reset is applied
      */
-    public List<CataMine> getMinesFromFolder(Path folder) {
-        Objects.requireNonNull(folder);
-        List<CataMine> cataMines = new ArrayList<>();
-
-        if (!Files.isDirectory(folder)) {
-            plugin.getLogger().severe("Path is not a directory: " + folder);
-            return cataMines;
-        }
+    public CompletableFuture<ResetResult> resetRegion(CataMineRegion region, ResetPriority priority) {
+        return resetRegion(region, priority, () -> null);
+    }
 
-        try (Stream<Path> stream = Files.list(folder)) {
-            cataMines = stream
-                    .map(this::deserializeCataMineFromYaml)
-                    .flatMap(Optional::stream)
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed loading directory: " + folder);
+    /**
+     * Queues this region for a seeded reset, see {@link #resetRegion(CataMineRegion, ResetPriority)}.
+     * The seed is only obtained if the reset is actually queued, not if
+     * it is merged into a pending reset of the region.
+     *
+     * @param region   the region to reset
+     * @param priority the priority of the reset
+     * @param seed     supplies the seed of the reset, or null for a random reset
+     * @return the future completed once the reset is applied
+     */
+    public CompletableFuture<ResetResult> resetRegion(CataMineRegion region, ResetPriority priority, Supplier<ResetSeed> seed) {
+        if (priority == ResetPriority.SCHEDULED && hasPlayersNearby(region)) {
+            priority = ResetPriority.PLAYERS_NEARBY;
         }
 
-        plugin.getLogger().info("Loaded " + cataMines.size() + " mines");
-        return cataMines;
+        return blockApplicator.queueForReset(region, priority, seed);
     }
 
-    private Optional<CataMine> deserializeCataMineFromYaml(Path path) {
-        FileConfiguration cfg = YamlConfiguration.loadConfiguration(path.toFile());
-        return deserializeCataMine(cfg);
+    /**
+     * Returns true if a player is within the configured radius of the
+     * region. Regions whose bounds are not known yet are treated as having
+     * no players nearby, since getting their bounds would wait for their
+     * schematic to load on the main thread.
+     */
+    private boolean hasPlayersNearby(CataMineRegion region) {
+        if (region.getWorld() == null || !region.hasBounds()) return false;
+
+        World world = Bukkit.getWorld(region.getWorld().getName());
+        if (world == null) return false;
+
+        int radius = plugin.getConfig().getInt("block-applicator.nearby-radius", 32);
+        BlockVector3 min = region.getMinimumPoint().subtract(radius, radius, radius);
+        BlockVector3 max = region.getMaximumPoint().add(radius, radius, radius);
+
+        for (Player player : world.getPlayers()) {
+            Location location = player.getLocation();
+            if (location.getBlockX() >= min.getBlockX() && location.getBlockX() <= max.getBlockX()
+                    && location.getBlockY() >= min.getBlockY() && location.getBlockY() <= max.getBlockY()
+                    && location.getBlockZ() >= min.getBlockZ() && location.getBlockZ() <= max.getBlockZ()) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
-    private Optional<CataMine> deserializeCataMine(ConfigurationSection section) {
-        CataMine mine = null;
-        try {
-            mine = AdvancedCataMine.deserialize(plugin, section);
-        } catch (DeserializationException e) {
-            // ignore
-            e.printStackTrace();
-        }
-        return Optional.ofNullable(mine);
+    /**
+     * Loads all mines of the folder. Every file ending with '.yml' directly
+     * inside the folder is parsed, files in subfolders are ignored. The
+     * files are parsed in parallel, the calling thread waits for them.
+     *
+     * @param folder the path to load the mines from
+     * @return A list of successfully loaded mines of direct children paths
+     * @see MineLoader
+     */
+    public List<CataMine> getMinesFromFolder(Path folder) {
+        return mineLoader.bind(mineLoader.parse(folder).join());
     }
 
     /**
@@ -179,16 +232,310 @@ public class MineManager {
      * @param folder the folder to load the mines from
      */
     public void loadMinesFromFolder(Path folder) {
+        // pending changes would otherwise overwrite the files after loading them
+        mineWriter.flush().join();
+        // the runtime state is not part of the files, it is restored from the journal
+        stateJournal.capture(mines);
+        setMines(getMinesFromFolder(folder));
+    }
+
+    /**
+     * Parses the mines of the folder in the background right away and
+     * registers them on the main thread once the given delay passed, so
+     * the worlds of the server are loaded by then.
+     *
+     * @param folder the folder to load the mines from
+     * @param delay  the minimum delay in ticks before the mines are registered
+     */
+    private void loadMinesOnStartup(Path folder, long delay) {
+        CompletableFuture<Void> worldsLoaded = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskLater(plugin, () -> worldsLoaded.complete(null), delay);
+
+        mineLoader.parse(folder)
+                .thenCombine(worldsLoaded, (parsed, ignored) -> parsed)
+                .thenAccept(parsed -> Bukkit.getScheduler().runTask(plugin, () -> setMines(mineLoader.bind(parsed))))
+                .exceptionally(throwable -> {
+                    plugin.getLogger().log(Level.SEVERE, "Failed loading mines", throwable);
+                    return null;
+                });
+    }
+
+    private void setMines(List<CataMine> loaded) {
         mines.clear();
-        mines.addAll(getMinesFromFolder(folder));
+        mines.addAll(loaded);
+
+        regionIndex.clear();
+        mines.forEach(regionIndex::add);
+
+        stateJournal.replay(mines);
     }
 
+    /**
+     * Handles a block broken by a player. The block is resolved to the
+     * composition block of every region containing it and a
+     * {@link CataMineBlockBreakEvent} is called for each of them. If any
+     * of these events is cancelled, the break is cancelled as well.
+     * <p>
+     * The regions are not changed and no loot is rolled here, since another
+     * plugin may still cancel the break. Only the vanilla drops are
+     * suppressed if the loot replaces them. The break is counted and its
+     * loot rolled by {@link #completeBlockBreak(BlockBreakEvent)} once it
+     * is final.
+     *
+     * @param event the break event
+     */
     public void callBlockBreak(BlockBreakEvent event) {
+        Block block = event.getBlock();
+        RegionIndex.Entry[] candidates = regionIndex.getCandidates(block.getWorld().getName(), block.getX(), block.getZ());
+        if (candidates.length == 0) return;
+
+        BlockState state = null;
+        List<RegionIndex.Entry> hits = new ArrayList<>(candidates.length);
+        CataMineBlock lootBlock = null;
+        for (RegionIndex.Entry entry : candidates) {
+            if (!entry.contains(block.getX(), block.getY(), block.getZ())) continue;
+            hits.add(entry);
+
+            if (state == null) state = BukkitAdapter.adapt(block.getBlockData());
+            Optional<BlockMatch> match = entry.getRegion().matchBlock(state);
+            if (match.isEmpty()) continue;
+
+            CataMineBlockBreakEvent breakEvent = new CataMineBlockBreakEvent(entry.getMine(), entry.getRegion(),
+                    match.get().composition(), match.get().block(), event);
+            Bukkit.getPluginManager().callEvent(breakEvent);
+            if (breakEvent.isCancelled()) {
+                event.setCancelled(true);
+                return;
+            }
+
+            if (lootBlock == null) lootBlock = match.get().block();
+        }
+
+        // players in creative mode get no loot
+        LootTable loot = null;
+        if (lootBlock != null && event.getPlayer().getGameMode() != GameMode.CREATIVE) {
+            loot = lootBlock.getLootTable();
+            if (loot.isEmpty()) {
+                loot = null;
+            } else if (loot.replacesVanillaDrops()) {
+                event.setDropItems(false);
+            }
+        }
+        if (!hits.isEmpty()) pendingBlockBreaks.put(event, new PendingBlockBreak(hits, loot));
+    }
+
+    /**
+     * Applies a break handled by {@link #callBlockBreak(BlockBreakEvent)}
+     * once it went through: the block is marked changed and counted in
+     * every region containing it, and its loot is rolled.
+     *
+     * @param event the break event
+     */
+    public void completeBlockBreak(BlockBreakEvent event) {
+        PendingBlockBreak pending = pendingBlockBreaks.remove(event);
+        if (pending == null) return;
+
+        if (pending.loot() != null) dropLoot(event, pending.loot());
+        for (RegionIndex.Entry entry : pending.hits()) {
+            markChanged(entry, event.getBlock());
+            entry.getMine().getController().onBlockBreak(entry.getRegion());
+        }
+    }
+
+    /**
+     * A player break awaiting the final outcome of its event.
+     *
+     * @param hits the indexed regions containing the block
+     * @param loot the loot of the broken composition block, null if the
+     *             break gets no loot
+     */
+    private record PendingBlockBreak(List<RegionIndex.Entry> hits, @Nullable LootTable loot) {
+    }
+
+    /**
+     * Handles many blocks about to break at once, e.g. by an explosion or
+     * an area tool. Mine blocks are resolved to their composition blocks
+     * and reported by a single {@link CataMineBlocksBreakEvent}. Per-block
+     * events are called as well if {@code events.per-block-events} is
+     * enabled.
+     * <p>
+     * The list is modified: mine blocks that must not break are removed
+     * from it. Nothing else is changed here, since the outcome of the
+     * cause is not final yet. Counters and loot are applied by
+     * {@link #completeBlocksBreak(List, Event)} once it is.
+     *
+     * @param blocks the blocks to break, e.g. the block list of an explosion
+     * @param player the player responsible, null if unknown
+     * @param cause  the event breaking the blocks
+     * @param yield  the chance of a broken block to drop its vanilla items
+     * @return true if the vanilla drops of the blocks must be suppressed,
+     * because the loot of some of them replaces them
+     */
+    public boolean callBlocksBreak(List<Block> blocks, @Nullable Player player, Event cause, float yield) {
+        Map<RegionIndex.Entry, List<Block>> hits = new LinkedHashMap<>();
+        Map<RegionIndex.Entry, Map<CataMineComposition, List<CataMineBlocksBreakEvent.BrokenBlock>>> matches = new LinkedHashMap<>();
+
+        for (Block block : blocks) {
+            RegionIndex.Entry[] candidates = regionIndex.getCandidates(block.getWorld().getName(), block.getX(), block.getZ());
+            if (candidates.length == 0) continue;
+
+            BlockState state = null;
+            for (RegionIndex.Entry entry : candidates) {
+                if (!entry.contains(block.getX(), block.getY(), block.getZ())) continue;
+
+                hits.computeIfAbsent(entry, key -> new ArrayList<>()).add(block);
+
+                if (state == null) state = BukkitAdapter.adapt(block.getBlockData());
+                Optional<BlockMatch> match = entry.getRegion().matchBlock(state);
+                if (match.isEmpty()) continue;
+
+                matches.computeIfAbsent(entry, key -> new LinkedHashMap<>())
+                        .computeIfAbsent(match.get().composition(), key -> new ArrayList<>())
+                        .add(new CataMineBlocksBreakEvent.BrokenBlock(block, match.get().block()));
+            }
+        }
+        if (hits.isEmpty()) return false;
+
+        Set<Block> cancelled = new HashSet<>();
+        if (plugin.getConfig().getBoolean("events.per-block-events", false)) {
+            matches.forEach((entry, compositions) -> compositions.forEach((composition, broken) -> {
+                for (CataMineBlocksBreakEvent.BrokenBlock brokenBlock : broken) {
+                    CataMineBlockBreakEvent breakEvent = new CataMineBlockBreakEvent(entry.getMine(), entry.getRegion(),
+                            composition, brokenBlock.cataMineBlock(), brokenBlock.block(), player, null);
+                    Bukkit.getPluginManager().callEvent(breakEvent);
+                    if (breakEvent.isCancelled()) cancelled.add(brokenBlock.block());
+                }
+            }));
+        }
+
+        List<CataMineBlocksBreakEvent.BlockGroup> groups = new ArrayList<>();
+        matches.forEach((entry, compositions) -> compositions.forEach((composition, broken) -> {
+            if (!cancelled.isEmpty()) broken.removeIf(brokenBlock -> cancelled.contains(brokenBlock.block()));
+            if (!broken.isEmpty()) {
+                groups.add(new CataMineBlocksBreakEvent.BlockGroup(entry.getMine(), entry.getRegion(), composition, broken));
+            }
+        }));
+
+        if (!groups.isEmpty()) {
+            CataMineBlocksBreakEvent batchEvent = new CataMineBlocksBreakEvent(groups, player, cause);
+            Bukkit.getPluginManager().callEvent(batchEvent);
+            if (batchEvent.isCancelled()) {
+                hits.values().forEach(cancelled::addAll);
+                groups.clear();
+            }
+        }
+
+        if (!cancelled.isEmpty()) {
+            blocks.removeIf(cancelled::contains);
+            hits.values().forEach(hit -> hit.removeIf(cancelled::contains));
+        }
+
+        boolean replacesDrops = groups.stream()
+                .flatMap(group -> group.blocks().stream())
+                .anyMatch(brokenBlock -> brokenBlock.cataMineBlock().getLootTable().replacesVanillaDrops());
+        pendingBreaks.put(cause, new PendingBreak(player, hits, groups, replacesDrops ? yield : -1));
+        return replacesDrops;
+    }
+
+    /**
+     * Applies a break handled by {@link #callBlocksBreak(List, Player, Event, float)}
+     * once its cause went through: the broken blocks are counted and their
+     * loot is rolled. Blocks removed from the list in the meantime are
+     * skipped. If vanilla drops were suppressed, they are rolled here for
+     * the blocks whose loot does not replace them.
+     *
+     * @param blocks the blocks that broke
+     * @param cause  the event that broke the blocks
+     */
+    public void completeBlocksBreak(List<Block> blocks, Event cause) {
+        PendingBreak pending = pendingBreaks.remove(cause);
+        if (pending == null) return;
+
+        Set<Block> broken = new HashSet<>(blocks);
+        for (Map.Entry<RegionIndex.Entry, List<Block>> hit : pending.hits().entrySet()) {
+            int count = 0;
+            for (Block block : hit.getValue()) {
+                if (!broken.contains(block)) continue;
+                markChanged(hit.getKey(), block);
+                count++;
+            }
+            if (count > 0) hit.getKey().getMine().getController().onBlocksBreak(hit.getKey().getRegion(), count);
+        }
+
+        Set<Block> looted = new HashSet<>();
+        Set<Block> replaced = new HashSet<>();
+        for (CataMineBlocksBreakEvent.BlockGroup group : pending.groups()) {
+            for (CataMineBlocksBreakEvent.BrokenBlock brokenBlock : group.blocks()) {
+                Block block = brokenBlock.block();
+                if (!broken.contains(block) || !looted.add(block)) continue;
+
+                LootTable lootTable = brokenBlock.cataMineBlock().getLootTable();
+                if (lootTable.isEmpty()) continue;
+                if (lootTable.replacesVanillaDrops()) replaced.add(block);
 
+                Location location = block.getLocation();
+                lootTable.roll(ThreadLocalRandom.current(), 0,
+                        (template, amount) -> dropAggregator.add(pending.player(), location, template, amount));
+            }
+        }
+
+        if (pending.yield() < 0) return;
+        for (Block block : blocks) {
+            if (replaced.contains(block) || ThreadLocalRandom.current().nextFloat() >= pending.yield()) continue;
+            Location location = block.getLocation();
+            block.getDrops().forEach(item -> block.getWorld().dropItemNaturally(location, item));
+        }
+    }
+
+    /**
+     * A multi-block break awaiting the final outcome of its cause.
+     *
+     * @param player the player responsible, null if unknown
+     * @param hits   the blocks per indexed region containing them
+     * @param groups the blocks reported to listeners, which get loot
+     * @param yield  the vanilla drop chance to roll by hand, negative if
+     *               vanilla drops were not suppressed
+     */
+    private record PendingBreak(@Nullable Player player, Map<RegionIndex.Entry, List<Block>> hits,
+                                List<CataMineBlocksBreakEvent.BlockGroup> groups, float yield) {
     }
 
     public void callBlockPlace(BlockPlaceEvent event) {
+        Block block = event.getBlock();
+        RegionIndex.Entry[] candidates = regionIndex.getCandidates(block.getWorld().getName(), block.getX(), block.getZ());
+        if (candidates.length == 0) return;
+
+        for (RegionIndex.Entry entry : candidates) {
+            if (!entry.contains(block.getX(), block.getY(), block.getZ())) continue;
+
+            markChanged(entry, block);
+            entry.getMine().getController().onBlockPlace(entry.getRegion());
+        }
+    }
 
+    /**
+     * Rolls the loot table of a broken composition block and hands the
+     * drops to the {@link DropAggregator}.
+     *
+     * @param event     the break event
+     * @param lootTable the loot of the composition block that was broken
+     */
+    private void dropLoot(BlockBreakEvent event, LootTable lootTable) {
+        int fortune = event.getPlayer().getInventory().getItemInMainHand().getEnchantmentLevel(Enchantment.LOOT_BONUS_BLOCKS);
+        Player player = event.getPlayer();
+        Location location = event.getBlock().getLocation();
+        lootTable.roll(ThreadLocalRandom.current(), fortune,
+                (template, amount) -> dropAggregator.add(player, location, template, amount));
+    }
+
+    /**
+     * Marks the position of the block as changed in the region of the entry.
+     *
+     * @param entry the indexed region containing the block
+     * @param block the changed block
+     */
+    private void markChanged(RegionIndex.Entry entry, Block block) {
+        entry.getRegion().markChanged(BlockVector3.at(block.getX(), block.getY(), block.getZ()));
     }
 
     /**
@@ -250,24 +597,99 @@ public class MineManager {
     public void registerMine(CataMine mine) {
         if (containsMine(mine)) throw new IllegalArgumentException();
         mines.add(mine);
+        regionIndex.add(mine);
     }
 
-    public void deleteMine(CataMine cataMine) throws IOException {
+    /**
+     * Unregisters a mine and deletes its file in the background.
+     *
+     * @param cataMine the mine to delete
+     * @return a future completing once the file is deleted
+     */
+    public CompletableFuture<Void> deleteMine(CataMine cataMine) {
         mines.remove(cataMine);
+        regionIndex.remove(cataMine);
 
-        Files.deleteIfExists(plugin.getDataFolder().toPath().resolve("mines").resolve(cataMine.getName() + ".yml"));
+        return mineWriter.delete(cataMine);
     }
 
-    public void saveMine(CataMine mine) throws IOException {
-        Path file = plugin.getDataFolder().toPath().resolve("mines").resolve(mine.getName() + ".yml");
-        FileConfiguration fileCfg = new YamlConfiguration();
+    /**
+     * Marks a mine as changed, so it is written to its file shortly.
+     * Changes made to the mine until then are written at once.
+     *
+     * @param mine the changed mine
+     * @see MineWriter
+     */
+    public CompletableFuture<Void> markDirty(CataMine mine) {
+        return mineWriter.markDirty(mine);
+    }
 
-        mine.serialize(fileCfg);
+    /**
+     * Writes a mine to its file in the background right away.
+     *
+     * @param mine the mine to save
+     * @return a future completing once the file is written
+     */
+    public CompletableFuture<Void> saveMine(CataMine mine) {
+        return mineWriter.write(mine);
+    }
 
-        fileCfg.save(file.toFile());
+    /**
+     * Adds a region to a mine and to the region index.
+     *
+     * @param mine   the mine to add the region to
+     * @param region the region to add
+     */
+    public void addRegion(CataMine mine, CataMineRegion region) {
+        mine.getRegionManager().add(region);
+        if (mines.contains(mine)) regionIndex.add(mine, region);
+    }
+
+    /**
+     * Removes a region from a mine and from the region index.
+     *
+     * @param mine   the mine to remove the region from
+     * @param region the region to remove
+     */
+    public void removeRegion(CataMine mine, CataMineRegion region) {
+        mine.getRegionManager().remove(region);
+        regionIndex.remove(region);
+    }
+
+    /**
+     * Updates the region index after the bounds of a region changed or
+     * became known, and marks its mine dirty so the bounds are saved.
+     * Regions of unregistered mines are ignored.
+     *
+     * @param region the changed region
+     */
+    public void updateRegion(CataMineRegion region) {
+        for (CataMine mine : mines) {
+            if (!mine.getRegionManager().getChoices().contains(region)) continue;
+
+            regionIndex.add(mine, region);
+            markDirty(mine);
+            return;
+        }
+    }
+
+    public RegionIndex getRegionIndex() {
+        return regionIndex;
+    }
+
+    public MineWriter getMineWriter() {
+        return mineWriter;
+    }
+
+    public DropAggregator getDropAggregator() {
+        return dropAggregator;
     }
 
     public Path getMinesPath() {
         return minesPath;
     }
+
+    public BlockApplicator getBlockApplicator() {
+        return blockApplicator;
+    }
 }
@@ -0,0 +1,389 @@
+package me.catalysmrl.catamines.managers;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a parsed mine file. Reading a snapshot is much faster
+ * than parsing the YAML it was created from, so snapshots are written next
+ * to the mine files and used instead of them on startup. The YAML stays the
+ * source of truth: a snapshot stores the length and CRC32 of the file it was
+ * created from and is only used while the file still matches them.
+ * <p>
+ * A snapshot starts with a header of the magic number, the format version,
+ * the length and checksum of the YAML and the length and checksum of the
+ * payload. The payload starts with a palette of all strings of the file, so
+ * block states, materials and keys used several times are stored once and
+ * referenced by index. Sections, lists and maps are prefixed with their size,
+ * numbers and block vectors are stored as zigzag encoded varints and
+ * serializable objects like item stacks as maps of their serialized form.
+ */
+public final class MineSnapshot {
+
+    public static final String EXTENSION = ".cmsnap";
+
+    private static final int MAGIC = 0x434D534E;
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_SECTION = 1;
+    private static final byte TAG_STRING = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_TRUE = 6;
+    private static final byte TAG_FALSE = 7;
+    private static final byte TAG_LIST = 8;
+    private static final byte TAG_MAP = 9;
+    private static final byte TAG_SERIALIZABLE = 10;
+    private static final byte TAG_VECTOR = 11;
+
+    private static final Pattern VECTOR = Pattern.compile("-?\\d{1,9},-?\\d{1,9},-?\\d{1,9}");
+
+    private MineSnapshot() {
+    }
+
+    /**
+     * Gets the snapshot file belonging to a mine file.
+     *
+     * @param yamlFile the mine file
+     * @return the snapshot file next to it
+     */
+    public static Path getSnapshotFile(Path yamlFile) {
+        String name = yamlFile.getFileName().toString();
+        if (name.endsWith(".yml")) name = name.substring(0, name.length() - ".yml".length());
+        return yamlFile.resolveSibling(name + EXTENSION);
+    }
+
+    /**
+     * Reads the snapshot of a mine file.
+     *
+     * @param file the snapshot file
+     * @param yaml the current content of the mine file
+     * @return the configuration, empty if there is no valid snapshot matching the content
+     */
+    public static Optional<YamlConfiguration> read(Path file, byte[] yaml) {
+        if (!Files.isRegularFile(file)) return Optional.empty();
+
+        try {
+            return decode(Files.readAllBytes(file), yaml);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot of a parsed mine file, replacing the previous one
+     * atomically.
+     *
+     * @param file    the snapshot file
+     * @param section the parsed configuration
+     * @param yaml    the content the configuration was parsed from
+     * @throws IOException if the configuration contains values that cannot be
+     *                     stored or the file cannot be written
+     */
+    public static void write(Path file, ConfigurationSection section, byte[] yaml) throws IOException {
+        byte[] snapshot = encode(section, yaml);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, snapshot);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Encodes a parsed mine file.
+     *
+     * @param section the parsed configuration
+     * @param yaml    the content the configuration was parsed from
+     * @return the snapshot
+     * @throws IOException if the configuration contains values that cannot be stored
+     */
+    public static byte[] encode(ConfigurationSection section, byte[] yaml) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.writeSection(section);
+        byte[] body = encoder.body.toByteArray();
+
+        Buffer payload = new Buffer();
+        payload.writeVarInt(encoder.palette.size());
+        for (String string : encoder.palette.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            payload.writeVarInt(bytes.length);
+            payload.write(bytes, 0, bytes.length);
+        }
+        payload.write(body, 0, body.length);
+        byte[] payloadBytes = payload.toByteArray();
+
+        Buffer out = new Buffer();
+        out.writeInt(MAGIC);
+        out.write(FORMAT_VERSION);
+        out.writeVarInt(yaml.length);
+        out.writeInt(crc(yaml, 0, yaml.length));
+        out.writeVarInt(payloadBytes.length);
+        out.writeInt(crc(payloadBytes, 0, payloadBytes.length));
+        out.write(payloadBytes, 0, payloadBytes.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot if it was created from the given content.
+     *
+     * @param snapshot the snapshot
+     * @param yaml     the current content of the mine file
+     * @return the configuration, empty if the snapshot is invalid or outdated
+     */
+    public static Optional<YamlConfiguration> decode(byte[] snapshot, byte[] yaml) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(snapshot);
+            if (in.getInt() != MAGIC || in.get() != FORMAT_VERSION) return Optional.empty();
+            if (readVarInt(in) != yaml.length || in.getInt() != crc(yaml, 0, yaml.length)) return Optional.empty();
+
+            int payloadLength = readVarInt(in);
+            int payloadCrc = in.getInt();
+            if (payloadLength != in.remaining() || payloadCrc != crc(snapshot, in.position(), payloadLength)) {
+                return Optional.empty();
+            }
+
+            String[] palette = new String[readVarInt(in)];
+            for (int i = 0; i < palette.length; i++) {
+                int length = readVarInt(in);
+                palette[i] = new String(snapshot, in.position(), length, StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+            }
+
+            YamlConfiguration config = new YamlConfiguration();
+            if (in.get() != TAG_SECTION) return Optional.empty();
+            new Decoder(in, palette).readSection(config);
+            return Optional.of(config);
+        } catch (RuntimeException e) {
+            // truncated or malformed snapshots are treated like missing ones
+            return Optional.empty();
+        }
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Varint too long");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+    }
+
+    private static final class Encoder {
+
+        private final Map<String, Integer> palette = new LinkedHashMap<>();
+        private final Buffer body = new Buffer();
+
+        private void writeSection(ConfigurationSection section) throws IOException {
+            body.write(TAG_SECTION);
+            body.writeVarInt(section.getKeys(false).size());
+            for (String key : section.getKeys(false)) {
+                writeString(key);
+                writeValue(section.get(key));
+            }
+        }
+
+        private void writeMap(byte tag, Map<?, ?> map) throws IOException {
+            body.write(tag);
+            body.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) throw new IOException("Unsupported map key " + entry.getKey());
+                writeString(key);
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                body.write(TAG_NULL);
+            } else if (value instanceof ConfigurationSection section) {
+                writeSection(section);
+            } else if (value instanceof String string) {
+                if (VECTOR.matcher(string).matches() && writeVector(string)) return;
+                body.write(TAG_STRING);
+                writeString(string);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                body.write(TAG_INT);
+                body.writeVarLong(zigzag(((Number) value).intValue()));
+            } else if (value instanceof Long number) {
+                body.write(TAG_LONG);
+                body.writeVarLong(zigzag(number));
+            } else if (value instanceof Double || value instanceof Float) {
+                body.write(TAG_DOUBLE);
+                body.writeLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+            } else if (value instanceof Boolean bool) {
+                body.write(bool ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof List<?> list) {
+                body.write(TAG_LIST);
+                body.writeVarInt(list.size());
+                for (Object element : list) {
+                    writeValue(element);
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                writeMap(TAG_MAP, map);
+            } else if (value instanceof ConfigurationSerializable serializable) {
+                Map<String, Object> serialized = new LinkedHashMap<>();
+                serialized.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, ConfigurationSerialization.getAlias(serializable.getClass()));
+                serialized.putAll(serializable.serialize());
+                writeMap(TAG_SERIALIZABLE, serialized);
+            } else {
+                throw new IOException("Unsupported value " + value.getClass().getName());
+            }
+        }
+
+        /**
+         * Writes a string like "1,-64,3" as three varints, if it is
+         * restored exactly by formatting them again.
+         */
+        private boolean writeVector(String string) {
+            String[] parts = string.split(",");
+            long[] components = new long[3];
+            for (int i = 0; i < 3; i++) {
+                components[i] = Long.parseLong(parts[i]);
+                if (!Long.toString(components[i]).equals(parts[i])) return false;
+            }
+
+            body.write(TAG_VECTOR);
+            for (long component : components) {
+                body.writeVarLong(zigzag(component));
+            }
+            return true;
+        }
+
+        private void writeString(String string) {
+            Integer index = palette.get(string);
+            if (index == null) {
+                index = palette.size();
+                palette.put(string, index);
+            }
+            body.writeVarInt(index);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer in;
+        private final String[] palette;
+
+        private Decoder(ByteBuffer in, String[] palette) {
+            this.in = in;
+            this.palette = palette;
+        }
+
+        private void readSection(ConfigurationSection section) {
+            int size = readVarInt(in);
+            for (int i = 0; i < size; i++) {
+                String key = palette[readVarInt(in)];
+                byte tag = in.get();
+                if (tag == TAG_SECTION) {
+                    readSection(section.createSection(key));
+                } else {
+                    section.set(key, readValue(tag));
+                }
+            }
+        }
+
+        private Map<String, Object> readMap() {
+            int size = readVarInt(in);
+            Map<String, Object> map = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String key = palette[readVarInt(in)];
+                map.put(key, readValue(in.get()));
+            }
+            return map;
+        }
+
+        private Object readValue(byte tag) {
+            return switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_SECTION -> readMap();
+                case TAG_STRING -> palette[readVarInt(in)];
+                case TAG_INT -> (int) unzigzag(readVarLong(in));
+                case TAG_LONG -> unzigzag(readVarLong(in));
+                case TAG_DOUBLE -> Double.longBitsToDouble(in.getLong());
+                case TAG_TRUE -> true;
+                case TAG_FALSE -> false;
+                case TAG_LIST -> {
+                    int size = readVarInt(in);
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue(in.get()));
+                    }
+                    yield list;
+                }
+                case TAG_MAP -> readMap();
+                case TAG_SERIALIZABLE -> ConfigurationSerialization.deserializeObject(readMap());
+                case TAG_VECTOR -> unzigzag(readVarLong(in)) + "," + unzigzag(readVarLong(in)) + "," + unzigzag(readVarLong(in));
+                default -> throw new IllegalStateException("Unknown tag " + tag);
+            };
+        }
+    }
+}
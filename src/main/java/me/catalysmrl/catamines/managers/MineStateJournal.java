@@ -0,0 +1,365 @@
+package me.catalysmrl.catamines.managers;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.mine.components.manager.choice.Choice;
+import me.catalysmrl.catamines.mine.components.manager.choice.ChoiceManager;
+import me.catalysmrl.catamines.mine.components.manager.choice.Identifiable;
+import me.catalysmrl.catamines.mine.components.manager.controller.CataMineController;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.mine.components.region.tracking.BlockCounter;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the runtime state of the mines: the countdown and
+ * reset counter of the controller, the current and upcoming region, and the
+ * block counters and current and upcoming composition of every region. The
+ * mine files are only written when a mine is edited or the server stops, so
+ * without the journal this state would be lost on a crash.
+ * <p>
+ * The state of every mine that changed is appended as one record per
+ * interval. Records are prefixed with their length and CRC32, so a record
+ * torn by a crash is detected on replay and everything from it on is
+ * discarded. Once the journal grows beyond its limit, it is compacted to
+ * the latest record of every mine. Appending and compacting happen on a
+ * writer thread, the state is captured on the main thread.
+ * <p>
+ * Has to be used from the main thread.
+ */
+public class MineStateJournal {
+
+    private static final byte RECORD_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final long DEFAULT_INTERVAL = 100L;
+    private static final long DEFAULT_MAX_SIZE = 4L;
+
+    private final CataMines plugin;
+    private final Path file;
+    private final boolean enabled;
+    private final long interval;
+    private final long maxSize;
+
+    // the latest record of every mine, by name
+    private final Map<String, byte[]> latest = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+    private FileChannel channel;
+    private long size;
+    private boolean replayed;
+    private BukkitTask captureTask;
+
+    public MineStateJournal(CataMines plugin, Path file) {
+        this.plugin = plugin;
+        this.file = file;
+        this.enabled = plugin.getConfig().getBoolean("journal.enabled", true);
+        this.interval = Math.max(1, plugin.getConfig().getLong("journal.interval", DEFAULT_INTERVAL));
+        this.maxSize = Math.max(1, plugin.getConfig().getLong("journal.max-size", DEFAULT_MAX_SIZE)) * 1024 * 1024;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CataMines Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Applies the journaled state to the mines. The journal is read from
+     * disk the first time, afterwards the latest captured state is applied,
+     * e.g. after the mines were reloaded from their files. Starts capturing
+     * the state of the mines periodically.
+     *
+     * @param mines the loaded mines
+     */
+    public void replay(List<CataMine> mines) {
+        if (!enabled) return;
+
+        if (!replayed) {
+            // rewrite a torn journal, so new records are not appended behind the torn one
+            if (readJournal()) writer.execute(this::compact);
+            replayed = true;
+            captureTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> capture(plugin.getMineManager().getMines()), interval, interval);
+        }
+
+        int restored = 0;
+        for (CataMine mine : mines) {
+            byte[] record = latest.get(mine.getName());
+            if (record == null) continue;
+
+            try {
+                apply(mine, record);
+                restored++;
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed restoring the state of mine " + mine.getName() + ": " + e.getMessage());
+            }
+        }
+        if (restored > 0) plugin.getLogger().info("Restored the state of " + restored + " mines from the journal");
+    }
+
+    /**
+     * Appends the state of every mine that changed since it was last
+     * captured. States of mines not passed are dropped on the next compaction.
+     *
+     * @param mines all registered mines
+     */
+    public void capture(List<CataMine> mines) {
+        if (!enabled || !replayed) return;
+
+        Set<String> names = new HashSet<>();
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        for (CataMine mine : mines) {
+            names.add(mine.getName());
+
+            byte[] record = encode(mine);
+            if (Arrays.equals(record, latest.get(mine.getName()))) continue;
+
+            latest.put(mine.getName(), record);
+            writeFramed(batch, record);
+        }
+        latest.keySet().retainAll(names);
+
+        if (batch.size() == 0) return;
+        byte[] bytes = batch.toByteArray();
+        writer.execute(() -> append(bytes));
+    }
+
+    /**
+     * Captures the final state of the mines and waits for the journal to
+     * be written. Has to be called when the plugin is disabled.
+     *
+     * @param mines all registered mines
+     */
+    public void shutDown(List<CataMine> mines) {
+        if (captureTask != null) captureTask.cancel();
+        capture(mines);
+
+        writer.execute(this::close);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) writer.shutdownNow();
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the latest record of every mine from the journal file.
+     *
+     * @return whether the journal has to be rewritten, because it is
+     * missing or ends with a torn record. False if it could not be read,
+     * so its records are kept for the next start
+     */
+    private boolean readJournal() {
+        if (!Files.isRegularFile(file)) return true;
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed reading the journal: " + e.getMessage());
+            return false;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int records = 0;
+        int end = 0;
+        while (in.remaining() >= HEADER_SIZE) {
+            int length = in.getInt();
+            int crc = in.getInt();
+            if (length <= 0 || length > in.remaining() || crc != crc(bytes, in.position(), length)) break;
+
+            byte[] record = Arrays.copyOfRange(bytes, in.position(), in.position() + length);
+            in.position(in.position() + length);
+            try {
+                latest.put(readName(record), record);
+                records++;
+                end = in.position();
+            } catch (IOException e) {
+                break;
+            }
+        }
+
+        plugin.getLogger().info("Read " + records + " records of " + latest.size() + " mines from the journal");
+        if (end == bytes.length) return false;
+
+        plugin.getLogger().warning("Discarded " + (bytes.length - end) + " bytes of a torn record at the end of the journal");
+        return true;
+    }
+
+    private void append(byte[] bytes) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                size = channel.size();
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            size += bytes.length;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed writing the journal: " + e.getMessage());
+            return;
+        }
+
+        long live = latest.values().stream().mapToLong(record -> record.length + HEADER_SIZE).sum();
+        if (size > Math.max(maxSize, 2 * live)) compact();
+    }
+
+    /**
+     * Replaces the journal with the latest record of every mine.
+     */
+    private void compact() {
+        close();
+
+        List<byte[]> records = new ArrayList<>(latest.values());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            writeFramed(out, record);
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+                while (buffer.hasRemaining()) {
+                    tempChannel.write(buffer);
+                }
+                tempChannel.force(true);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed compacting the journal: " + e.getMessage());
+        }
+    }
+
+    private void close() {
+        if (channel == null) return;
+
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    private static void writeFramed(ByteArrayOutputStream out, byte[] record) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(record.length);
+        header.putInt(crc(record, 0, record.length));
+        out.write(header.array(), 0, HEADER_SIZE);
+        out.write(record, 0, record.length);
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(CataMine mine) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CataMineController controller = mine.getController();
+            out.writeByte(RECORD_VERSION);
+            out.writeUTF(mine.getName());
+            out.writeInt(controller.getCountdown());
+            out.writeLong(controller.getResetCount());
+            writeChoices(out, mine.getRegionManager());
+
+            List<CataMineRegion> regions = mine.getRegionManager().getChoices();
+            out.writeInt(regions.size());
+            for (CataMineRegion region : regions) {
+                BlockCounter counter = region.getBlockCounter();
+                out.writeUTF(region.getName());
+                out.writeLong(counter.getTotal());
+                out.writeLong(counter.getMined());
+                writeChoices(out, region.getCompositionManager());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeChoices(DataOutputStream out, ChoiceManager<?> choices) throws IOException {
+        out.writeUTF(choices.getCurrent().map(Identifiable::getName).orElse(""));
+        out.writeUTF(choices.getUpcoming().map(Identifiable::getName).orElse(""));
+    }
+
+    private static String readName(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        if (in.readByte() != RECORD_VERSION) throw new IOException("Unknown record version");
+        return in.readUTF();
+    }
+
+    private static void apply(CataMine mine, byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        if (in.readByte() != RECORD_VERSION) throw new IOException("Unknown record version");
+        in.readUTF();
+
+        CataMineController controller = mine.getController();
+        controller.setCountdown(in.readInt());
+        controller.setResetCount(in.readLong());
+        readChoices(in, mine.getRegionManager());
+
+        int regions = in.readInt();
+        for (int i = 0; i < regions; i++) {
+            Optional<CataMineRegion> region = mine.getRegionManager().get(in.readUTF());
+            long total = in.readLong();
+            long mined = in.readLong();
+            if (region.isEmpty()) {
+                // the region was removed, skip its choices
+                in.readUTF();
+                in.readUTF();
+                continue;
+            }
+
+            // counters of regions whose shape changed meanwhile start over
+            BlockCounter counter = region.get().getBlockCounter();
+            if (counter.getTotal() == total) counter.restore(total, mined);
+            readChoices(in, region.get().getCompositionManager());
+        }
+    }
+
+    private static <T extends Identifiable & Choice> void readChoices(DataInputStream in, ChoiceManager<T> choices) throws IOException {
+        String current = in.readUTF();
+        String upcoming = in.readUTF();
+        if (!current.isEmpty()) choices.get(current).ifPresent(choices::setCurrent);
+        if (!upcoming.isEmpty()) choices.get(upcoming).ifPresent(choices::setUpcoming);
+    }
+}
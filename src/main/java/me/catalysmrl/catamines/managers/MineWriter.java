@@ -0,0 +1,238 @@
+package me.catalysmrl.catamines.managers;
+
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.utils.message.Message;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes mine files in the background. Changed mines are only marked dirty,
+ * a burst of changes to the same mine within the write delay results in a
+ * single write. The mines are serialized on the main thread, rendering and
+ * writing the YAML happens on a pool of writer threads.
+ * <p>
+ * Writes of the same file are applied in the order they were issued, writes
+ * of different files in parallel. Every file is written to a temporary file
+ * first and moved over the old one, so a crash never leaves a partially
+ * written mine behind.
+ * <p>
+ * Has to be used from the main thread.
+ */
+public class MineWriter {
+
+    private static final long DEFAULT_WRITE_DELAY = 20L;
+    private static final int DEFAULT_THREADS = 2;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 10L;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final CataMines plugin;
+    private final Path folder;
+    private final long writeDelay;
+    private final long shutdownTimeout;
+    private final ExecutorService writerPool;
+
+    private final Set<CataMine> dirty = new LinkedHashSet<>();
+    // completed with the outcome of the next write of every dirty mine
+    private final Map<CataMine, CompletableFuture<Void>> pendingWrites = new HashMap<>();
+    // the last write or delete of every file, later ones are chained to it
+    private final Map<Path, CompletableFuture<Void>> inFlight = new HashMap<>();
+    private BukkitTask flushTask;
+
+    public MineWriter(CataMines plugin, Path folder) {
+        this.plugin = plugin;
+        this.folder = folder;
+        this.writeDelay = Math.max(0, plugin.getConfig().getLong("persistence.write-delay", DEFAULT_WRITE_DELAY));
+        this.shutdownTimeout = Math.max(0, plugin.getConfig().getLong("persistence.shutdown-timeout", DEFAULT_SHUTDOWN_TIMEOUT));
+
+        int threads = Math.max(1, plugin.getConfig().getInt("persistence.threads", DEFAULT_THREADS));
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "CataMines Writer #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        writerPool = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Marks a mine as changed. It is written once the write delay passed,
+     * together with all other mines changed meanwhile.
+     *
+     * @param mine the changed mine
+     * @return a future completing once the mine is written, exceptionally
+     * if writing it failed. Shared by all changes merged into the write
+     */
+    public CompletableFuture<Void> markDirty(CataMine mine) {
+        dirty.add(mine);
+        if (flushTask == null) flushTask = Bukkit.getScheduler().runTaskLater(plugin, this::flush, writeDelay);
+        return pendingWrites.computeIfAbsent(mine, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * Writes all dirty mines right away.
+     *
+     * @return a future completing once all writes issued so far are done.
+     * Failed writes are logged and do not fail it
+     */
+    public CompletableFuture<Void> flush() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        List<CataMine> toWrite = new ArrayList<>(dirty);
+        dirty.clear();
+        for (CataMine mine : toWrite) {
+            write(mine);
+        }
+
+        return CompletableFuture.allOf(inFlight.values().stream()
+                .map(future -> future.exceptionally(throwable -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Writes a mine right away, skipping the write delay.
+     *
+     * @param mine the mine to write
+     * @return a future completing once the file is written, exceptionally
+     * if writing it failed
+     */
+    public CompletableFuture<Void> write(CataMine mine) {
+        dirty.remove(mine);
+        CompletableFuture<Void> pending = pendingWrites.remove(mine);
+
+        YamlConfiguration config = new YamlConfiguration();
+        mine.serialize(config);
+
+        Path file = getFile(mine.getName());
+        CompletableFuture<Void> written = chain(file, () -> {
+            try {
+                writeAtomically(file, config.saveToString());
+            } catch (IOException e) {
+                plugin.getLogger().severe(Message.MINE_SAVE_EXCEPTION.getMessage(mine.getName()) + ": " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        if (pending != null) {
+            written.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    pending.complete(null);
+                } else {
+                    pending.completeExceptionally(throwable);
+                }
+            });
+        }
+        return written;
+    }
+
+    /**
+     * Deletes the file of a mine once all writes of it issued so far are
+     * done. A pending write of the mine is discarded.
+     *
+     * @param mine the mine to delete the file of
+     * @return a future completing once the file is deleted
+     */
+    public CompletableFuture<Void> delete(CataMine mine) {
+        dirty.remove(mine);
+        CompletableFuture<Void> pending = pendingWrites.remove(mine);
+        if (pending != null) pending.complete(null);
+        return delete(mine.getName());
+    }
+
+    /**
+     * Deletes the file of a mine with the given name and its snapshot, e.g.
+     * after a mine was renamed, once all writes of it issued so far are done.
+     *
+     * @param name the name of the mine
+     * @return a future completing once the file is deleted, exceptionally
+     * if deleting it failed
+     */
+    public CompletableFuture<Void> delete(String name) {
+        Path file = getFile(name);
+        return chain(file, () -> {
+            try {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(MineSnapshot.getSnapshotFile(file));
+            } catch (IOException e) {
+                plugin.getLogger().severe(Message.MINE_DELETE_EXCEPTION.getMessage(name) + ": " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes all dirty mines and waits for all writes to finish, at most
+     * for the configured timeout. Has to be called when the plugin is
+     * disabled.
+     */
+    public void shutDown() {
+        try {
+            flush().get(shutdownTimeout, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            plugin.getLogger().severe("Writing mines did not finish within " + shutdownTimeout + " seconds");
+        } catch (ExecutionException e) {
+            plugin.getLogger().severe("Failed writing mines: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerPool.shutdownNow();
+    }
+
+    public boolean isDirty(CataMine mine) {
+        return dirty.contains(mine);
+    }
+
+    private Path getFile(String name) {
+        return folder.resolve(name + ".yml");
+    }
+
+    private CompletableFuture<Void> chain(Path file, Runnable operation) {
+        CompletableFuture<Void> previous = inFlight.getOrDefault(file, CompletableFuture.completedFuture(null));
+        // a failed operation must not prevent the following ones
+        CompletableFuture<Void> next = previous.exceptionally(throwable -> null).thenRunAsync(operation, writerPool);
+        inFlight.put(file, next);
+        // forget completed operations on the main thread, where the map is accessed
+        next.whenComplete((result, throwable) -> {
+            if (plugin.isEnabled()) Bukkit.getScheduler().runTask(plugin, () -> inFlight.remove(file, next));
+        });
+        return next;
+    }
+
+    private void writeAtomically(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
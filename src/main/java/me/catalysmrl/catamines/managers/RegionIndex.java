@@ -0,0 +1,223 @@
+package me.catalysmrl.catamines.managers;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.utils.collection.LongObjectHashMap;
+import me.catalysmrl.catamines.utils.helper.ChunkKeys;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Spatial index of all regions, mapping each chunk to the regions whose
+ * bounds intersect it. Looking up the regions at a position is a hash
+ * lookup of the world and of the chunk, so positions outside of every
+ * mine are rejected without looking at any region.
+ * <p>
+ * The index is updated incrementally: adding or removing a region only
+ * touches the chunks of that region. It is not thread safe and has to
+ * be used from the main thread.
+ */
+public class RegionIndex {
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final Map<String, LongObjectHashMap<Entry[]>> worlds = new HashMap<>();
+    private final Map<CataMineRegion, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Adds all regions of a mine to the index.
+     *
+     * @param mine the mine to add
+     */
+    public void add(CataMine mine) {
+        for (CataMineRegion region : mine.getRegionManager().getChoices()) {
+            add(mine, region);
+        }
+    }
+
+    /**
+     * Adds a region to the index. If the region is indexed already, it is
+     * re-indexed with its current bounds. Regions whose bounds are not
+     * known yet are not indexed.
+     *
+     * @param mine   the mine of the region
+     * @param region the region to add
+     */
+    public void add(CataMine mine, CataMineRegion region) {
+        remove(region);
+        if (region.getWorld() == null || !region.hasBounds()) return;
+
+        Entry entry = new Entry(mine, region, region.getWorld().getName(), region.getMinimumPoint(), region.getMaximumPoint());
+        LongObjectHashMap<Entry[]> chunks = worlds.computeIfAbsent(entry.worldName, key -> new LongObjectHashMap<>());
+
+        for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+            for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+                long key = ChunkKeys.pack(chunkX, chunkZ);
+                Entry[] present = chunks.get(key);
+                if (present == null) {
+                    chunks.put(key, new Entry[]{entry});
+                } else {
+                    Entry[] extended = Arrays.copyOf(present, present.length + 1);
+                    extended[present.length] = entry;
+                    chunks.put(key, extended);
+                }
+            }
+        }
+
+        entries.put(region, entry);
+    }
+
+    /**
+     * Removes all regions of a mine from the index.
+     *
+     * @param mine the mine to remove
+     */
+    public void remove(CataMine mine) {
+        for (CataMineRegion region : mine.getRegionManager().getChoices()) {
+            remove(region);
+        }
+    }
+
+    /**
+     * Removes a region from the index. The chunks the region was indexed
+     * in are used, even if its bounds changed in the meantime.
+     *
+     * @param region the region to remove
+     */
+    public void remove(CataMineRegion region) {
+        Entry entry = entries.remove(region);
+        if (entry == null) return;
+
+        LongObjectHashMap<Entry[]> chunks = worlds.get(entry.worldName);
+        if (chunks == null) return;
+
+        for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+            for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+                long key = ChunkKeys.pack(chunkX, chunkZ);
+                Entry[] present = chunks.get(key);
+                if (present == null) continue;
+
+                Entry[] reduced = without(present, entry);
+                if (reduced.length == 0) {
+                    chunks.remove(key);
+                } else {
+                    chunks.put(key, reduced);
+                }
+            }
+        }
+
+        if (chunks.isEmpty()) worlds.remove(entry.worldName);
+    }
+
+    private static Entry[] without(Entry[] present, Entry entry) {
+        for (int i = 0; i < present.length; i++) {
+            if (present[i] != entry) continue;
+
+            Entry[] reduced = new Entry[present.length - 1];
+            System.arraycopy(present, 0, reduced, 0, i);
+            System.arraycopy(present, i + 1, reduced, i, present.length - i - 1);
+            return reduced;
+        }
+        return present;
+    }
+
+    public void clear() {
+        worlds.clear();
+        entries.clear();
+    }
+
+    /**
+     * Gets the regions whose bounds intersect the chunk of the position.
+     * The returned array must not be modified.
+     *
+     * @param worldName the name of the world
+     * @param x         the block x coordinate
+     * @param z         the block z coordinate
+     * @return the candidate regions, empty if the chunk is not part of any mine
+     */
+    public Entry[] getCandidates(String worldName, int x, int z) {
+        LongObjectHashMap<Entry[]> chunks = worlds.get(worldName);
+        if (chunks == null) return EMPTY;
+
+        Entry[] candidates = chunks.get(ChunkKeys.packBlock(x, z));
+        return candidates == null ? EMPTY : candidates;
+    }
+
+    /**
+     * Gets the first region containing the position.
+     *
+     * @param worldName the name of the world
+     * @param x         the block x coordinate
+     * @param y         the block y coordinate
+     * @param z         the block z coordinate
+     * @return the entry of the region, null if no region contains the position
+     */
+    public Entry getAt(String worldName, int x, int y, int z) {
+        for (Entry entry : getCandidates(worldName, x, z)) {
+            if (entry.contains(x, y, z)) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of indexed regions.
+     *
+     * @return the number of regions
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * An indexed region together with its mine and the bounds it was
+     * indexed with.
+     */
+    public static final class Entry {
+
+        private final CataMine mine;
+        private final CataMineRegion region;
+        private final String worldName;
+        private final int minX, minY, minZ;
+        private final int maxX, maxY, maxZ;
+
+        private Entry(CataMine mine, CataMineRegion region, String worldName, BlockVector3 min, BlockVector3 max) {
+            this.mine = mine;
+            this.region = region;
+            this.worldName = worldName;
+            this.minX = min.getBlockX();
+            this.minY = min.getBlockY();
+            this.minZ = min.getBlockZ();
+            this.maxX = max.getBlockX();
+            this.maxY = max.getBlockY();
+            this.maxZ = max.getBlockZ();
+        }
+
+        /**
+         * Returns true if the region contains the position. Positions
+         * outside the bounds are rejected before asking the region.
+         *
+         * @param x the block x coordinate
+         * @param y the block y coordinate
+         * @param z the block z coordinate
+         * @return true if the region contains the position
+         */
+        public boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX
+                    && y >= minY && y <= maxY
+                    && z >= minZ && z <= maxZ
+                    && region.contains(BlockVector3.at(x, y, z));
+        }
+
+        public CataMine getMine() {
+            return mine;
+        }
+
+        public CataMineRegion getRegion() {
+            return region;
+        }
+    }
+}
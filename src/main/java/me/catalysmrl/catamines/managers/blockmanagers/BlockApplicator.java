@@ -1,39 +1,244 @@
 package me.catalysmrl.catamines.managers.blockmanagers;
 
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetResult;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 
 public abstract class BlockApplicator {
 
-    private static final long MAX_BLOCK_UPDATES_PER_TICK = 5_000_000L;
+    private static final double DEFAULT_TICK_BUDGET_MILLIS = 10d;
+    private static final long FILL_RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
 
     protected JavaPlugin plugin;
-    protected Deque<CataMineRegion> resetQueue = new ArrayDeque<>();
+    protected final ResetQueue resetQueue = new ResetQueue();
+    protected volatile ResetJob currentJob;
+    private final Deque<Long> fillTimes = new ArrayDeque<>();
+
+    protected final ResetThrottle throttle;
+    protected final boolean batchSessions;
+    private final LongAdder sessionsOpened = new LongAdder();
+    private final LongAdder sessionsAvoided = new LongAdder();
 
     public BlockApplicator(JavaPlugin plugin) {
         this.plugin = plugin;
+
+        double tickBudgetMillis = plugin.getConfig().getDouble("block-applicator.tick-budget", DEFAULT_TICK_BUDGET_MILLIS);
+        if (tickBudgetMillis <= 0) {
+            plugin.getLogger().warning("Invalid block-applicator.tick-budget " + tickBudgetMillis + ", using " + DEFAULT_TICK_BUDGET_MILLIS);
+            tickBudgetMillis = DEFAULT_TICK_BUDGET_MILLIS;
+        }
+        this.throttle = new ResetThrottle(plugin, (long) (tickBudgetMillis * TimeUnit.MILLISECONDS.toNanos(1)));
+        this.batchSessions = plugin.getConfig().getBoolean("block-applicator.batch-sessions", true);
     }
 
     public abstract void start();
 
     public abstract void cancel();
 
-    public void queueForReset(CataMineRegion region) {
-        resetQueue.offer(region);
+    /**
+     * Queues the region for reset. If a reset of the region is already
+     * pending, both requests are merged. Resets are applied by priority,
+     * resets with the same priority in the order they were queued.
+     *
+     * @param region   the region to reset
+     * @param priority the priority of the reset
+     * @return the future completed with the result of the reset, shared
+     * by all requests merged into the same reset
+     */
+    public CompletableFuture<ResetResult> queueForReset(CataMineRegion region, ResetPriority priority) {
+        return queueForReset(region, priority, () -> null);
+    }
+
+    /**
+     * Queues the region for a seeded reset, see {@link #queueForReset(CataMineRegion, ResetPriority)}.
+     *
+     * @param region   the region to reset
+     * @param priority the priority of the reset
+     * @param seed     supplies the seed of the reset, or null for a random
+     *                 reset, only if the region is not pending already
+     * @return the future completed with the result of the reset
+     */
+    public CompletableFuture<ResetResult> queueForReset(CataMineRegion region, ResetPriority priority, Supplier<ResetSeed> seed) {
+        return resetQueue.offer(region, priority, seed);
     }
 
+    /**
+     * Applies queued reset jobs slice by slice until the queue is empty or
+     * the current budget of the {@link ResetThrottle} is used up. At least
+     * one slice is applied per call, so every reset progresses regardless
+     * of the budget. An unfinished job is resumed on the next call before
+     * any other region is polled from the queue.
+     * <p>
+     * If session batching is enabled, all jobs of the same world share one
+     * EditSession during a call, which is flushed once at the end.
+     */
     protected void handleQueue() {
-        long blockUpdates = 0L;
+        long deadline = System.nanoTime() + throttle.getBudgetNanos();
+        List<ResetJob> finished = new ArrayList<>();
+        EditSessionBatch batch = new EditSessionBatch();
+
+        try {
+            while (currentJob != null || !resetQueue.isEmpty()) {
+                if (currentJob == null) {
+                    Optional<PendingReset> pending = resetQueue.poll();
+                    if (pending.isEmpty()) break;
+                    currentJob = new ResetJob(pending.get());
+                }
+
+                ResetJob job = currentJob;
+
+                if (job.getWorld() == null) {
+                    plugin.getLogger().warning("Skipping reset of region " + job.getRegion().getName() + ": world not loaded");
+                    currentJob = null;
+                    job.complete();
+                    continue;
+                }
+
+                try {
+                    EditSession editSession = batch.get(job.getWorld(), job.getEditSessionSettings());
+                    do {
+                        job.applyNext(editSession);
+                    } while (!job.isDone() && System.nanoTime() < deadline);
+                } catch (MaxChangedBlocksException exception) {
+                    exception.printStackTrace();
+                    job.abort();
+                } catch (RuntimeException exception) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to reset region " + job.getRegion().getName(), exception);
+                    currentJob = null;
+                    job.fail(exception);
+                    continue;
+                }
+
+                if (!batchSessions) batch.close();
 
-        while (!resetQueue.isEmpty()) {
-            CataMineRegion region = resetQueue.pop();
-            blockUpdates += region.getVolume();
-            region.fill();
+                if (job.isDone()) {
+                    currentJob = null;
+                    finished.add(job);
+                }
+
+                if (System.nanoTime() >= deadline) break;
+            }
+        } finally {
+            batch.close();
+            recordSessions(batch);
+        }
+
+        finished.forEach(this::completeJob);
+    }
+
+    /**
+     * Adds the sessions opened and avoided by a closed batch to the
+     * statistics of this applicator.
+     *
+     * @param batch the closed batch
+     */
+    protected void recordSessions(EditSessionBatch batch) {
+        sessionsOpened.add(batch.getOpened());
+        sessionsAvoided.add(batch.getAvoided());
+    }
+
+    /**
+     * Discards all queued resets and the reset being applied. Their
+     * futures are cancelled.
+     */
+    protected void discardPending() {
+        ResetJob job = currentJob;
+        currentJob = null;
+        if (job != null) job.fail(new CancellationException("Block applicator cancelled"));
+
+        resetQueue.clear();
+    }
 
-            if (blockUpdates > MAX_BLOCK_UPDATES_PER_TICK) break;
+    /**
+     * Completes a finished job and records it in the statistics of this
+     * applicator. The block counter of a completely filled region is reset
+     * to its volume. Its future is completed last, so callbacks see the
+     * region ready for its next reset. May be called from any thread.
+     *
+     * @param job the finished job
+     */
+    protected void completeJob(ResetJob job) {
+        CataMineRegion region = job.getRegion();
+        if (job.getResult().getStatus() == ResetResult.Status.COMPLETED) {
+            region.getBlockCounter().reset(region.getVolume());
         }
+        region.onFillComplete();
+
+        synchronized (fillTimes) {
+            long now = System.nanoTime();
+            fillTimes.addLast(now);
+            while (now - fillTimes.peekFirst() > FILL_RATE_WINDOW_NANOS) {
+                fillTimes.pollFirst();
+            }
+        }
+
+        job.complete();
+    }
+
+    /**
+     * Gets the average number of region fills completed per second
+     * over the last few seconds.
+     *
+     * @return the fills per second
+     */
+    public double getFillsPerSecond() {
+        synchronized (fillTimes) {
+            long now = System.nanoTime();
+            while (!fillTimes.isEmpty() && now - fillTimes.peekFirst() > FILL_RATE_WINDOW_NANOS) {
+                fillTimes.pollFirst();
+            }
+            return fillTimes.size() / (double) TimeUnit.NANOSECONDS.toSeconds(FILL_RATE_WINDOW_NANOS);
+        }
+    }
+
+    /**
+     * Gets the number of resets currently being applied.
+     *
+     * @return the number of active jobs
+     */
+    public int getActiveJobs() {
+        return currentJob == null ? 0 : 1;
+    }
+
+    public long getSessionsOpened() {
+        return sessionsOpened.sum();
+    }
+
+    /**
+     * Gets the number of EditSessions that were saved by sharing one
+     * session per world between resets.
+     *
+     * @return the number of avoided sessions
+     */
+    public long getSessionsAvoided() {
+        return sessionsAvoided.sum();
+    }
+
+    public boolean isBatchingSessions() {
+        return batchSessions;
+    }
+
+    public ResetThrottle getThrottle() {
+        return throttle;
+    }
+
+    public ResetQueue getResetQueue() {
+        return resetQueue;
     }
 }
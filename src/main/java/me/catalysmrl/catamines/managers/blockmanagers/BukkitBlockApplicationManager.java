@@ -14,11 +14,14 @@ public class BukkitBlockApplicationManager extends BlockApplicator {
 
     @Override
     public void start() {
+        throttle.start();
         bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, this::handleQueue, 0L, 1L);
     }
 
     @Override
     public void cancel() {
+        throttle.cancel();
         bukkitTask.cancel();
+        discardPending();
     }
 }
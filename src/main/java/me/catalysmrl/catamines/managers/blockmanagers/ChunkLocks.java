@@ -0,0 +1,86 @@
+package me.catalysmrl.catamines.managers.blockmanagers;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.utils.helper.ChunkKeys;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the chunks regions are currently being filled in.
+ * Two regions conflict if they are in the same world and their bounds
+ * share at least one chunk.
+ */
+public class ChunkLocks {
+
+    private final Map<String, Set<Long>> lockedChunks = new HashMap<>();
+    private final Map<CataMineRegion, Held> heldChunks = new HashMap<>();
+
+    /**
+     * Locks all chunks of the region if none of them is locked yet.
+     *
+     * @param region the region to lock
+     * @return true if the chunks were locked, false if the region conflicts with a locked one
+     */
+    public synchronized boolean tryLock(CataMineRegion region) {
+        String worldName = worldName(region);
+        Set<Long> locked = lockedChunks.computeIfAbsent(worldName, key -> new HashSet<>());
+        long[] chunks = chunksOf(region);
+
+        for (long chunk : chunks) {
+            if (locked.contains(chunk)) return false;
+        }
+
+        for (long chunk : chunks) {
+            locked.add(chunk);
+        }
+        heldChunks.put(region, new Held(worldName, chunks));
+        return true;
+    }
+
+    /**
+     * Unlocks the chunks locked for the region. The same chunks are
+     * released even if the bounds of the region changed in the meantime.
+     *
+     * @param region the region to unlock
+     */
+    public synchronized void unlock(CataMineRegion region) {
+        Held held = heldChunks.remove(region);
+        if (held == null) return;
+
+        Set<Long> locked = lockedChunks.get(held.worldName);
+        if (locked == null) return;
+
+        for (long chunk : held.chunks) {
+            locked.remove(chunk);
+        }
+    }
+
+    private static String worldName(CataMineRegion region) {
+        return region.getWorld() == null ? "" : region.getWorld().getName();
+    }
+
+    private static long[] chunksOf(CataMineRegion region) {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        int minChunkX = min.getBlockX() >> 4;
+        int minChunkZ = min.getBlockZ() >> 4;
+        int maxChunkX = max.getBlockX() >> 4;
+        int maxChunkZ = max.getBlockZ() >> 4;
+
+        long[] chunks = new long[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+        int i = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                chunks[i++] = ChunkKeys.pack(chunkX, chunkZ);
+            }
+        }
+        return chunks;
+    }
+
+    private record Held(String worldName, long[] chunks) {
+    }
+}
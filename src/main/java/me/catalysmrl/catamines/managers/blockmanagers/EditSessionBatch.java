@@ -0,0 +1,78 @@
+package me.catalysmrl.catamines.managers.blockmanagers;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.world.World;
+import me.catalysmrl.catamines.mine.components.region.EditSessionSettings;
+import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares one EditSession per world between all resets applied in the
+ * same scheduling round. Every session is flushed once when the batch
+ * is closed, instead of once per region. Regions with different
+ * {@link EditSessionSettings} cannot share a session.
+ */
+public class EditSessionBatch implements AutoCloseable {
+
+    private final Map<Key, EditSession> sessions = new HashMap<>();
+
+    private int opened;
+    private int requested;
+
+    /**
+     * Gets the open session of the world with the given settings,
+     * creating it if needed.
+     *
+     * @param world    the world to edit
+     * @param settings the settings of the session
+     * @return the session of the world
+     */
+    public EditSession get(World world, EditSessionSettings settings) {
+        requested++;
+
+        Key key = new Key(world, settings);
+        EditSession editSession = sessions.get(key);
+        if (editSession == null) {
+            editSession = WorldEditUtils.newEditSession(world, settings);
+            sessions.put(key, editSession);
+            opened++;
+        }
+        return editSession;
+    }
+
+    /**
+     * Flushes and closes all open sessions. The batch may be used again
+     * afterwards, which opens new sessions.
+     */
+    @Override
+    public void close() {
+        for (EditSession editSession : sessions.values()) {
+            editSession.close();
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Gets the number of sessions opened by this batch.
+     *
+     * @return the number of opened sessions
+     */
+    public int getOpened() {
+        return opened;
+    }
+
+    /**
+     * Gets the number of sessions that would have been opened without
+     * batching, minus those actually opened.
+     *
+     * @return the number of avoided sessions
+     */
+    public int getAvoided() {
+        return requested - opened;
+    }
+
+    private record Key(World world, EditSessionSettings settings) {
+    }
+}
@@ -1,23 +1,186 @@
 package me.catalysmrl.catamines.managers.blockmanagers;
 
 import com.fastasyncworldedit.core.FaweAPI;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.world.World;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Applicator filling regions on a bounded pool of worker threads.
+ * FastAsyncWorldEdit allows EditSessions to be used off the main thread,
+ * so regions that do not share any chunk are filled in parallel. The
+ * number of concurrent fills is scaled down while the server is under
+ * load, as reported by the {@link ResetThrottle}.
+ */
 public class FastAsyncBlockApplicationManager extends BlockApplicator {
 
+    private static final int DEFAULT_WORKERS = 4;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 4;
+
+    private final int workers;
+    private final int maxBatchSize;
+    private final ChunkLocks chunkLocks = new ChunkLocks();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger activeJobs = new AtomicInteger();
+
+    private ExecutorService workerPool;
     private int taskID;
 
     public FastAsyncBlockApplicationManager(JavaPlugin plugin) {
         super(plugin);
+
+        int configuredWorkers = plugin.getConfig().getInt("block-applicator.workers", DEFAULT_WORKERS);
+        workers = Math.max(1, configuredWorkers);
+        maxBatchSize = Math.max(1, plugin.getConfig().getInt("block-applicator.max-batch-size", DEFAULT_MAX_BATCH_SIZE));
     }
 
     @Override
     public void start() {
-        taskID = FaweAPI.getTaskManager().repeatAsync(this::handleQueue, 1);
+        throttle.start();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "CataMines Reset Worker #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        workerPool = Executors.newFixedThreadPool(workers, threadFactory);
+        taskID = FaweAPI.getTaskManager().repeatAsync(this::dispatch, 1);
     }
 
     @Override
     public void cancel() {
+        throttle.cancel();
         FaweAPI.getTaskManager().cancel(taskID);
+        discardPending();
+
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(5, TimeUnit.SECONDS)) {
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands queued regions to idle workers. A region is only dispatched if
+     * none of its chunks is being filled by another worker, other regions
+     * are dispatched ahead of it in the meantime. If session batching is
+     * enabled, dispatchable regions of the same world are handed to the
+     * same worker and filled in one EditSession. Batches are capped at
+     * {@code max-batch-size} and at an even share of the queue among the
+     * idle workers, so a single world does not serialize all fills on
+     * one worker.
+     */
+    private void dispatch() {
+        int maxConcurrent = getMaxConcurrentJobs();
+
+        while (activeWorkers.get() < maxConcurrent) {
+            // the filter locks the chunks of the region it accepts, poll stops at the first one
+            Optional<PendingReset> next = resetQueue.poll(chunkLocks::tryLock);
+            if (next.isEmpty()) return;
+
+            List<PendingReset> resets = new ArrayList<>();
+            resets.add(next.get());
+
+            if (batchSessions) {
+                int idleWorkers = maxConcurrent - activeWorkers.get();
+                int share = (resetQueue.size() + idleWorkers) / idleWorkers;
+                int batchSize = Math.min(maxBatchSize, share);
+
+                World world = next.get().getRegion().getWorld();
+                Optional<PendingReset> sameWorld;
+                while (resets.size() < batchSize
+                        && (sameWorld = resetQueue.poll(region -> Objects.equals(world, region.getWorld()) && chunkLocks.tryLock(region))).isPresent()) {
+                    resets.add(sameWorld.get());
+                }
+            }
+
+            activeWorkers.incrementAndGet();
+            activeJobs.addAndGet(resets.size());
+            workerPool.execute(() -> fill(resets));
+        }
+    }
+
+    private void fill(List<PendingReset> resets) {
+        List<ResetJob> finished = new ArrayList<>();
+        EditSessionBatch batch = new EditSessionBatch();
+
+        try {
+            for (PendingReset reset : resets) {
+                ResetJob job = new ResetJob(reset);
+
+                if (job.getWorld() == null) {
+                    plugin.getLogger().warning("Skipping reset of region " + job.getRegion().getName() + ": world not loaded");
+                    job.complete();
+                    continue;
+                }
+
+                try {
+                    job.applyAll(batch.get(job.getWorld(), job.getEditSessionSettings()));
+                } catch (MaxChangedBlocksException exception) {
+                    exception.printStackTrace();
+                    job.abort();
+                } catch (RuntimeException exception) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to reset region " + job.getRegion().getName(), exception);
+                    job.fail(exception);
+                    continue;
+                }
+
+                finished.add(job);
+            }
+        } finally {
+            try {
+                batch.close();
+                recordSessions(batch);
+                finished.forEach(this::completeJob);
+            } catch (RuntimeException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to complete region resets", exception);
+                finished.forEach(job -> job.fail(exception));
+            } finally {
+                for (PendingReset reset : resets) {
+                    chunkLocks.unlock(reset.getRegion());
+                    // no-op for resets completed above, fails those interrupted by an unexpected error
+                    reset.getFuture().completeExceptionally(new IllegalStateException("Reset of region " + reset.getRegion().getName() + " did not complete"));
+                }
+                activeJobs.addAndGet(-resets.size());
+                activeWorkers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Scales the number of workers by the share of the budget the
+     * throttle currently grants.
+     *
+     * @return the number of fills allowed to run at once
+     */
+    private int getMaxConcurrentJobs() {
+        double share = throttle.getBudgetNanos() / (double) throttle.getMaxBudgetNanos();
+        return Math.max(1, (int) Math.round(workers * share));
+    }
+
+    @Override
+    public int getActiveJobs() {
+        return activeJobs.get();
+    }
+
+    public int getWorkers() {
+        return workers;
     }
 }
@@ -0,0 +1,61 @@
+package me.catalysmrl.catamines.managers.blockmanagers;
+
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetResult;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A reset polled from the {@link ResetQueue}, carrying the future all
+ * merged requests of the region wait for.
+ */
+public final class PendingReset {
+
+    private final CataMineRegion region;
+    private final ResetPriority priority;
+    private final long queuedAt;
+    private final CompletableFuture<ResetResult> future;
+    private final ResetSeed seed;
+
+    PendingReset(CataMineRegion region, ResetPriority priority, long queuedAt, CompletableFuture<ResetResult> future, @Nullable ResetSeed seed) {
+        this.region = region;
+        this.priority = priority;
+        this.queuedAt = queuedAt;
+        this.future = future;
+        this.seed = seed;
+    }
+
+    public CataMineRegion getRegion() {
+        return region;
+    }
+
+    public ResetPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the time the region was first queued at.
+     *
+     * @return the time in nanoseconds ({@link System#nanoTime()})
+     */
+    public long getQueuedAt() {
+        return queuedAt;
+    }
+
+    public CompletableFuture<ResetResult> getFuture() {
+        return future;
+    }
+
+    /**
+     * Gets the seed the region is filled with.
+     *
+     * @return the seed, empty for a random reset
+     */
+    public Optional<ResetSeed> getSeed() {
+        return Optional.ofNullable(seed);
+    }
+}
@@ -0,0 +1,204 @@
+package me.catalysmrl.catamines.managers.blockmanagers;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetResult;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.mine.components.region.EditSessionSettings;
+import me.catalysmrl.catamines.mine.components.region.RegionFill;
+
+/**
+ * A pending reset of a single region. The region is split into slices
+ * of one chunk section (16x16x16 blocks) each, which are applied one
+ * after another. This allows a reset to be spread over multiple ticks.
+ * <p>
+ * The fill of the region is prepared when the first slice is applied,
+ * not when the job is created. The job completes the future of its
+ * {@link PendingReset} with a {@link ResetResult} once it is finished.
+ */
+public class ResetJob {
+
+    private static final int SECTION_SHIFT = 4;
+
+    private final CataMineRegion region;
+    private final PendingReset pending;
+    private final World world;
+    private final EditSessionSettings editSessionSettings;
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int minSectionY;
+    private final int chunksX;
+    private final int chunksZ;
+    private final int sectionsY;
+    private final int sliceCount;
+
+    private RegionFill fill;
+    private boolean prepared;
+    private boolean aborted;
+    private int cursor;
+    private long blocksChanged;
+    private long startedAt;
+    private long fillNanos;
+
+    /**
+     * Creates a job applying a polled reset.
+     *
+     * @param pending the polled reset
+     */
+    public ResetJob(PendingReset pending) {
+        this.region = pending.getRegion();
+        this.pending = pending;
+        this.world = region.getWorld();
+        this.editSessionSettings = region.getEditSessionSettings();
+        this.min = region.getMinimumPoint();
+        this.max = region.getMaximumPoint();
+
+        minChunkX = min.getBlockX() >> SECTION_SHIFT;
+        minChunkZ = min.getBlockZ() >> SECTION_SHIFT;
+        minSectionY = min.getBlockY() >> SECTION_SHIFT;
+        chunksX = (max.getBlockX() >> SECTION_SHIFT) - minChunkX + 1;
+        chunksZ = (max.getBlockZ() >> SECTION_SHIFT) - minChunkZ + 1;
+        sectionsY = (max.getBlockY() >> SECTION_SHIFT) - minSectionY + 1;
+        sliceCount = chunksX * chunksZ * sectionsY;
+    }
+
+    /**
+     * Applies the next slice of this job to the EditSession. Slices are
+     * ordered chunk by chunk, from the bottom section to the top one.
+     *
+     * @param editSession the session to apply the slice to
+     * @throws MaxChangedBlocksException if the session exceeds its block limit
+     */
+    public void applyNext(EditSession editSession) throws MaxChangedBlocksException {
+        long start = System.nanoTime();
+        try {
+            applySlice(editSession);
+        } finally {
+            fillNanos += System.nanoTime() - start;
+        }
+    }
+
+    private void applySlice(EditSession editSession) throws MaxChangedBlocksException {
+        if (!prepared) {
+            startedAt = System.nanoTime();
+            fill = region.prepareFill(pending.getSeed().orElse(null)).orElse(null);
+            prepared = true;
+        }
+
+        if (fill == null) {
+            cursor = sliceCount;
+            return;
+        }
+
+        int index = cursor++;
+        int sectionY = minSectionY + index % sectionsY;
+        int chunkIndex = index / sectionsY;
+        int chunkX = minChunkX + chunkIndex % chunksX;
+        int chunkZ = minChunkZ + chunkIndex / chunksX;
+
+        BlockVector3 sliceMin = BlockVector3.at(
+                Math.max(min.getBlockX(), chunkX << SECTION_SHIFT),
+                Math.max(min.getBlockY(), sectionY << SECTION_SHIFT),
+                Math.max(min.getBlockZ(), chunkZ << SECTION_SHIFT));
+        BlockVector3 sliceMax = BlockVector3.at(
+                Math.min(max.getBlockX(), (chunkX << SECTION_SHIFT) + 15),
+                Math.min(max.getBlockY(), (sectionY << SECTION_SHIFT) + 15),
+                Math.min(max.getBlockZ(), (chunkZ << SECTION_SHIFT) + 15));
+
+        blocksChanged += fill.apply(editSession, new CuboidRegion(world, sliceMin, sliceMax));
+    }
+
+    /**
+     * Applies all remaining slices of this job to the EditSession.
+     *
+     * @param editSession the session to apply the slices to
+     * @throws MaxChangedBlocksException if the session exceeds its block limit
+     */
+    public void applyAll(EditSession editSession) throws MaxChangedBlocksException {
+        while (!isDone()) {
+            applyNext(editSession);
+        }
+    }
+
+    /**
+     * Aborts this job. Remaining slices will not be applied.
+     */
+    public void abort() {
+        aborted = true;
+        cursor = sliceCount;
+    }
+
+    /**
+     * Completes the future of this job with its result. Has to be called
+     * once the applied blocks are flushed to the world.
+     */
+    public void complete() {
+        pending.getFuture().complete(getResult());
+    }
+
+    /**
+     * Completes the future of this job exceptionally.
+     *
+     * @param throwable the reason the job failed
+     */
+    public void fail(Throwable throwable) {
+        pending.getFuture().completeExceptionally(throwable);
+    }
+
+    /**
+     * Gets the result of this job in its current state.
+     *
+     * @return the result
+     */
+    public ResetResult getResult() {
+        ResetResult.Status status;
+        if (!prepared || fill == null) {
+            status = ResetResult.Status.SKIPPED;
+        } else if (aborted) {
+            status = ResetResult.Status.ABORTED;
+        } else {
+            status = ResetResult.Status.COMPLETED;
+        }
+
+        ResetPriority priority = pending.getPriority();
+        long queueWait = !prepared ? 0 : Math.max(0, startedAt - pending.getQueuedAt());
+
+        return new ResetResult(status, region, fill == null ? null : fill.getComposition(), priority,
+                blocksChanged, queueWait, fillNanos, fill != null && fill.isDifferential());
+    }
+
+    public boolean isDone() {
+        return cursor >= sliceCount;
+    }
+
+    public CataMineRegion getRegion() {
+        return region;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public EditSessionSettings getEditSessionSettings() {
+        return editSessionSettings;
+    }
+
+    public int getSliceCount() {
+        return sliceCount;
+    }
+
+    public int getAppliedSlices() {
+        return Math.min(cursor, sliceCount);
+    }
+
+    public long getBlocksChanged() {
+        return blocksChanged;
+    }
+}
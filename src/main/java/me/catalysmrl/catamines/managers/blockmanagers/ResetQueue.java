@@ -0,0 +1,253 @@
+package me.catalysmrl.catamines.managers.blockmanagers;
+
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetResult;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Thread safe queue of pending region resets. Each region is queued at
+ * most once: queueing a region that is already pending merges both
+ * requests, keeping the higher priority. Regions are polled by priority
+ * first. Resets with the same priority are polled first in, first out,
+ * by the time they were first queued; merging keeps their place.
+ */
+public class ResetQueue {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing((Entry entry) -> entry.priority)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(ORDER);
+    private final Map<CataMineRegion, Entry> entries = new HashMap<>();
+    private final Map<ResetPriority, Integer> sizes = new EnumMap<>(ResetPriority.class);
+
+    private long sequence;
+    private long merged;
+
+    /**
+     * Queues a region for reset.
+     *
+     * @param region   the region to reset
+     * @param priority the priority of the reset
+     * @return the future completed once the reset is applied, shared with
+     * the pending reset of the region if the request was merged into it
+     */
+    public CompletableFuture<ResetResult> offer(CataMineRegion region, ResetPriority priority) {
+        return offer(region, priority, () -> null);
+    }
+
+    /**
+     * Queues a region for a seeded reset. The seed is only obtained if the
+     * region is not pending already, so a request merged into a pending
+     * reset does not consume a seed. The pending reset keeps its own seed.
+     *
+     * @param region   the region to reset
+     * @param priority the priority of the reset
+     * @param seed     supplies the seed of the reset, or null for a random
+     *                 reset, once the reset is actually queued
+     * @return the future completed once the reset is applied, shared with
+     * the pending reset of the region if the request was merged into it
+     */
+    public CompletableFuture<ResetResult> offer(CataMineRegion region, ResetPriority priority, Supplier<ResetSeed> seed) {
+        lock.lock();
+        try {
+            Entry pending = entries.get(region);
+            if (pending == null) {
+                Entry entry = new Entry(region, priority, sequence++, System.nanoTime(), seed.get());
+                entries.put(region, entry);
+                queue.offer(entry);
+                sizes.merge(priority, 1, Integer::sum);
+                return entry.future;
+            }
+
+            merged++;
+            if (priority.isHigherThan(pending.priority)) {
+                queue.remove(pending);
+                sizes.merge(pending.priority, -1, Integer::sum);
+
+                pending.priority = priority;
+
+                queue.offer(pending);
+                sizes.merge(pending.priority, 1, Integer::sum);
+            }
+            return pending.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the region with the highest priority from the queue.
+     *
+     * @return the next reset, empty if the queue is empty
+     */
+    public Optional<PendingReset> poll() {
+        lock.lock();
+        try {
+            Entry entry = queue.poll();
+            if (entry == null) return Optional.empty();
+
+            entries.remove(entry.region);
+            sizes.merge(entry.priority, -1, Integer::sum);
+            return Optional.of(entry.toPendingReset());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the region with the highest priority accepted by the filter
+     * from the queue. Regions rejected by the filter stay queued.
+     *
+     * @param filter the filter regions have to pass
+     * @return the next accepted reset, empty if there is none
+     */
+    public Optional<PendingReset> poll(Predicate<CataMineRegion> filter) {
+        lock.lock();
+        try {
+            Entry head = queue.peek();
+            if (head == null) return Optional.empty();
+            if (filter.test(head.region)) return poll();
+
+            Entry[] pending = queue.toArray(new Entry[0]);
+            Arrays.sort(pending, ORDER);
+
+            for (Entry entry : pending) {
+                if (!filter.test(entry.region)) continue;
+
+                queue.remove(entry);
+                entries.remove(entry.region);
+                sizes.merge(entry.priority, -1, Integer::sum);
+                return Optional.of(entry.toPendingReset());
+            }
+
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a pending reset of the region from the queue. Its future
+     * is cancelled.
+     *
+     * @param region the region to remove
+     * @return true if a reset was pending
+     */
+    public boolean remove(CataMineRegion region) {
+        Entry entry;
+
+        lock.lock();
+        try {
+            entry = entries.remove(region);
+            if (entry == null) return false;
+
+            queue.remove(entry);
+            sizes.merge(entry.priority, -1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+
+        entry.future.cancel(false);
+        return true;
+    }
+
+    /**
+     * Removes all pending resets and cancels their futures.
+     */
+    public void clear() {
+        List<Entry> removed;
+
+        lock.lock();
+        try {
+            removed = new ArrayList<>(queue);
+            queue.clear();
+            entries.clear();
+            sizes.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        removed.forEach(entry -> entry.future.cancel(false));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of pending resets with the given priority.
+     *
+     * @param priority the priority
+     * @return the number of pending resets
+     */
+    public int size(ResetPriority priority) {
+        lock.lock();
+        try {
+            return sizes.getOrDefault(priority, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests merged into already pending resets.
+     *
+     * @return the number of merged requests
+     */
+    public long getMergedCount() {
+        lock.lock();
+        try {
+            return merged;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+
+        private final CataMineRegion region;
+        private final long sequence;
+        private final long queuedAt;
+        private final ResetSeed seed;
+        private final CompletableFuture<ResetResult> future = new CompletableFuture<>();
+        private ResetPriority priority;
+
+        private Entry(CataMineRegion region, ResetPriority priority, long sequence, long queuedAt, ResetSeed seed) {
+            this.region = region;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.queuedAt = queuedAt;
+            this.seed = seed;
+        }
+
+        private PendingReset toPendingReset() {
+            return new PendingReset(region, priority, queuedAt, future, seed);
+        }
+    }
+}
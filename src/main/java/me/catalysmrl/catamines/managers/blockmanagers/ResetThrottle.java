@@ -0,0 +1,175 @@
+package me.catalysmrl.catamines.managers.blockmanagers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feedback controller adapting the per-tick reset budget to the health
+ * of the server. The budget is cut multiplicatively while the measured
+ * MSPT is above the target and grows back linearly once the server has
+ * headroom again.
+ * <p>
+ * On Paper the average tick time reported by the server is used. On other
+ * implementations the MSPT is estimated from the interval between ticks,
+ * which cannot drop below 50 ms and therefore only reacts once the server
+ * is actually lagging behind.
+ */
+public class ResetThrottle {
+
+    private static final double NORMAL_TICK_MILLIS = 50d;
+    private static final double SMOOTHING = 0.1d;
+    private static final double DECREASE_FACTOR = 0.7d;
+    private static final double INCREASE_FRACTION = 0.05d;
+    private static final int ADJUST_INTERVAL_TICKS = 5;
+
+    private final JavaPlugin plugin;
+    private final boolean enabled;
+    private final double targetMspt;
+    private final double recoverMspt;
+    private final long minBudgetNanos;
+    private final long maxBudgetNanos;
+
+    private final Method averageTickTimeMethod;
+
+    private BukkitTask task;
+    private long lastTickNanos;
+    private int ticksSinceAdjust;
+
+    private volatile double mspt = NORMAL_TICK_MILLIS;
+    private volatile long budgetNanos;
+    private volatile State state = State.NORMAL;
+
+    public ResetThrottle(JavaPlugin plugin, long maxBudgetNanos) {
+        this.plugin = plugin;
+        this.maxBudgetNanos = maxBudgetNanos;
+        this.budgetNanos = maxBudgetNanos;
+
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("block-applicator.throttle");
+        if (section == null) {
+            section = plugin.getConfig().createSection("block-applicator.throttle");
+        }
+
+        enabled = section.getBoolean("enabled", true);
+        targetMspt = section.getDouble("target-mspt", 45d);
+        recoverMspt = section.getDouble("recover-mspt", 40d);
+        long minBudget = (long) (section.getDouble("min-budget", 1d) * TimeUnit.MILLISECONDS.toNanos(1));
+        minBudgetNanos = Math.min(minBudget, maxBudgetNanos);
+
+        averageTickTimeMethod = findAverageTickTimeMethod();
+    }
+
+    public void start() {
+        if (!enabled) return;
+
+        lastTickNanos = System.nanoTime();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double intervalMillis = (now - lastTickNanos) / 1_000_000d;
+        lastTickNanos = now;
+
+        double measured = readAverageTickTime();
+        mspt = measured >= 0 ? measured : mspt + SMOOTHING * (intervalMillis - mspt);
+
+        if (++ticksSinceAdjust < ADJUST_INTERVAL_TICKS) return;
+        ticksSinceAdjust = 0;
+        adjust();
+    }
+
+    private void adjust() {
+        long budget = budgetNanos;
+
+        if (mspt > targetMspt) {
+            budget = Math.max(minBudgetNanos, (long) (budget * DECREASE_FACTOR));
+        } else if (mspt < recoverMspt) {
+            budget = Math.min(maxBudgetNanos, budget + (long) (maxBudgetNanos * INCREASE_FRACTION));
+        }
+
+        budgetNanos = budget;
+
+        if (budget >= maxBudgetNanos) {
+            state = State.NORMAL;
+        } else if (budget <= minBudgetNanos) {
+            state = State.CRITICAL;
+        } else {
+            state = State.THROTTLED;
+        }
+    }
+
+    private double readAverageTickTime() {
+        if (averageTickTimeMethod == null) return -1;
+
+        try {
+            return (double) averageTickTimeMethod.invoke(Bukkit.getServer());
+        } catch (ReflectiveOperationException | ClassCastException exception) {
+            return -1;
+        }
+    }
+
+    private static Method findAverageTickTimeMethod() {
+        try {
+            return Bukkit.getServer().getClass().getMethod("getAverageTickTime");
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the current budget in nanoseconds the applicator may spend
+     * on resets each tick.
+     *
+     * @return the current tick budget
+     */
+    public long getBudgetNanos() {
+        return enabled ? budgetNanos : maxBudgetNanos;
+    }
+
+    public long getMaxBudgetNanos() {
+        return maxBudgetNanos;
+    }
+
+    public double getMspt() {
+        return mspt;
+    }
+
+    public State getState() {
+        return enabled ? state : State.DISABLED;
+    }
+
+    public boolean isPaperTickTime() {
+        return averageTickTimeMethod != null;
+    }
+
+    public enum State {
+        /**
+         * The full budget is available
+         */
+        NORMAL,
+        /**
+         * The budget is reduced because the server is under load
+         */
+        THROTTLED,
+        /**
+         * The budget is at its minimum
+         */
+        CRITICAL,
+        /**
+         * Throttling is disabled in the configuration
+         */
+        DISABLED
+    }
+}
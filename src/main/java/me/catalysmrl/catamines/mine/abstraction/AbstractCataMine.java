@@ -2,10 +2,16 @@ package me.catalysmrl.catamines.mine.abstraction;
 
 import me.catalysmrl.catamines.CataMines;
 import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetResult;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.mine.components.manager.choice.ChoiceManager;
 import me.catalysmrl.catamines.mine.components.manager.controller.CataMineController;
 import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 public abstract class AbstractCataMine implements CataMine {
 
     private final CataMines plugin;
@@ -29,9 +35,24 @@ public abstract class AbstractCataMine implements CataMine {
     }
 
     @Override
-    public void reset(CataMines plugin) {
-        regionManager.getUpcoming().ifPresent(region -> plugin.getMineManager().resetRegion(region));
-        regionManager.next();
+    public CompletableFuture<ResetResult> reset(CataMines plugin, ResetPriority priority) {
+        Optional<ResetSeed> nextSeed = controller.peekResetSeed();
+        Optional<CataMineRegion> region = nextSeed.isPresent()
+                ? regionManager.peek(nextSeed.get().regionRandom())
+                : regionManager.getUpcoming();
+
+        // the counter and the choice only advance if the reset is queued, not if it is merged
+        return region
+                .map(upcoming -> plugin.getMineManager().resetRegion(upcoming, priority, () -> {
+                    ResetSeed seed = controller.nextResetSeed().orElse(null);
+                    if (seed == null) {
+                        regionManager.next();
+                    } else {
+                        regionManager.choose(seed.regionRandom());
+                    }
+                    return seed;
+                }))
+                .orElseGet(() -> CompletableFuture.completedFuture(ResetResult.nothingToReset(priority)));
     }
 
     @Override
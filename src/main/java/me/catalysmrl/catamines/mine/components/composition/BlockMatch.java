@@ -0,0 +1,11 @@
+package me.catalysmrl.catamines.mine.components.composition;
+
+/**
+ * A block in the world resolved to the block of a composition it was
+ * placed from.
+ *
+ * @param composition the composition containing the block
+ * @param block       the matching block, carrying its drop type and loot table
+ */
+public record BlockMatch(CataMineComposition composition, CataMineBlock block) {
+}
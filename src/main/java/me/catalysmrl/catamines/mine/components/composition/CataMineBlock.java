@@ -5,21 +5,25 @@ import com.sk89q.worldedit.world.block.BaseBlock;
 import me.catalysmrl.catamines.api.serialization.DeserializationException;
 import me.catalysmrl.catamines.api.serialization.SectionSerializable;
 import me.catalysmrl.catamines.mine.components.composition.drop.CataMineItem;
+import me.catalysmrl.catamines.mine.components.composition.drop.LootTable;
 import me.catalysmrl.catamines.mine.components.manager.choice.Choice;
 import me.catalysmrl.catamines.utils.message.Message;
 import me.catalysmrl.catamines.utils.worldedit.BaseBlockParser;
 import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class CataMineBlock implements Choice, SectionSerializable {
 
-    private BaseBlock baseBlock;
-    private double chance;
+    private volatile BaseBlock baseBlock;
+    private volatile double chance;
+    private volatile CataMineComposition composition;
 
     private DropType dropType;
     private List<CataMineItem> items;
+    private volatile LootTable lootTable;
 
     public CataMineBlock(BaseBlock baseBlock, double chance) {
         this(baseBlock, chance, DropType.CUSTOM);
@@ -38,6 +42,7 @@ public class CataMineBlock implements Choice, SectionSerializable {
         this.chance = Math.round(chance * 100) / 100d;
         this.dropType = dropType;
         this.items = items;
+        items.forEach(item -> item.setOwner(this));
     }
 
     @Override
@@ -87,6 +92,7 @@ public class CataMineBlock implements Choice, SectionSerializable {
 
     public void setBaseBlock(BaseBlock baseBlock) {
         this.baseBlock = baseBlock;
+        refreshComposition();
     }
 
     @Override
@@ -99,6 +105,22 @@ public class CataMineBlock implements Choice, SectionSerializable {
             throw new IllegalArgumentException("Invalid chance");
         }
         this.chance = Math.round(chance * 100) / 100d;
+        refreshComposition();
+    }
+
+    /**
+     * Sets the composition this block is part of, which is refreshed
+     * whenever the block or chance of this block changes.
+     *
+     * @param composition the composition, null if the block was removed
+     */
+    void setComposition(@Nullable CataMineComposition composition) {
+        this.composition = composition;
+    }
+
+    private void refreshComposition() {
+        CataMineComposition composition = this.composition;
+        if (composition != null) composition.refresh();
     }
 
     public DropType getDropType() {
@@ -107,6 +129,7 @@ public class CataMineBlock implements Choice, SectionSerializable {
 
     public void setDropType(DropType dropType) {
         this.dropType = dropType;
+        invalidateLootTable();
     }
 
     public List<CataMineItem> getItems() {
@@ -114,7 +137,36 @@ public class CataMineBlock implements Choice, SectionSerializable {
     }
 
     public void setItems(List<CataMineItem> items) {
+        this.items.forEach(item -> item.setOwner(null));
         this.items = items;
+        items.forEach(item -> item.setOwner(this));
+        invalidateLootTable();
+    }
+
+    /**
+     * Gets the compiled loot table of this block. The table is compiled on
+     * first use and kept until the loot of this block changes.
+     *
+     * @return the compiled loot table
+     */
+    public LootTable getLootTable() {
+        LootTable table = lootTable;
+        if (table == null) {
+            // items added to the list directly are owned from now on
+            items.forEach(item -> item.setOwner(this));
+            table = LootTable.compile(dropType, items);
+            lootTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Discards the compiled loot table. Items of this block call it when
+     * they change. Has to be called after adding or removing items of the
+     * list returned by {@link #getItems()}.
+     */
+    public void invalidateLootTable() {
+        lootTable = null;
     }
 
     @Override
@@ -128,6 +180,17 @@ public class CataMineBlock implements Choice, SectionSerializable {
     }
 
     public enum DropType {
-        CUSTOM, ALL, SINGLE;
+        /**
+         * Every loot item is rolled on its own, replacing the vanilla drops
+         */
+        CUSTOM,
+        /**
+         * Every loot item is rolled on its own, in addition to the vanilla drops
+         */
+        ALL,
+        /**
+         * At most one loot item drops, picked by the chances of the items
+         */
+        SINGLE;
     }
 }
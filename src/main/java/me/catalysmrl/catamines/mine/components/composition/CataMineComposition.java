@@ -1,54 +1,99 @@
 package me.catalysmrl.catamines.mine.components.composition;
 
-import com.sk89q.worldedit.function.pattern.RandomPattern;
+import com.sk89q.worldedit.world.block.BlockState;
 import me.catalysmrl.catamines.api.serialization.DeserializationException;
 import me.catalysmrl.catamines.api.serialization.SectionSerializable;
 import me.catalysmrl.catamines.mine.components.manager.choice.Choice;
+import me.catalysmrl.catamines.mine.components.manager.choice.ChoiceManager;
 import me.catalysmrl.catamines.mine.components.manager.choice.Identifiable;
 import me.catalysmrl.catamines.mine.reward.Rewardable;
 import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Class representing the composition of a mine.
  * Contains all blocks that make up this upon regeneration.
  *
  * @see CataMineBlock
- * @see com.sk89q.worldedit.function.pattern.RandomPattern
+ * @see CompiledComposition
  */
 
 public class CataMineComposition implements Rewardable, Identifiable, Choice, SectionSerializable {
 
     private String name;
-    private double chance;
+    private volatile double chance;
+    private volatile ChoiceManager<?> owner;
 
-    private List<CataMineBlock> blocks = new ArrayList<>();
-    private RandomPattern randomPattern;
+    private final AtomicReference<CompiledComposition> compiled = new AtomicReference<>(CompiledComposition.EMPTY);
 
     public CataMineComposition(String name) {
         this.name = name;
     }
 
-    public void add(CataMineBlock block) {
+    /**
+     * Adds a block to this composition, replacing a block of the same state.
+     *
+     * @param block the block to add
+     */
+    public synchronized void add(CataMineBlock block) {
         Objects.requireNonNull(block);
+        List<CataMineBlock> blocks = new ArrayList<>(getBlocks());
         blocks.removeIf(cataMineBlock -> block.getBaseBlock().equals(cataMineBlock.getBaseBlock()));
         blocks.add(block);
-        updateRandomPattern();
+        publish(blocks);
     }
 
-    public void remove(CataMineBlock block) throws IllegalArgumentException {
+    public synchronized void remove(CataMineBlock block) throws IllegalArgumentException {
+        List<CataMineBlock> blocks = new ArrayList<>(getBlocks());
         if (!blocks.remove(block))
             throw new IllegalArgumentException("Block is not in composition");
+        publish(blocks);
     }
 
-    private void updateRandomPattern() {
-        randomPattern = new RandomPattern();
-        blocks.stream()
-                .filter(b -> b.getChance() > 0)
-                .forEach(b -> randomPattern.add(b.getBaseBlock(), b.getChance()));
+    private void publish(List<CataMineBlock> blocks) {
+        CompiledComposition previous = compiled.get();
+        for (CataMineBlock block : previous.getBlocks()) {
+            if (!blocks.contains(block)) block.setComposition(null);
+        }
+        blocks.forEach(block -> block.setComposition(this));
+        compiled.set(CompiledComposition.compile(blocks, previous.getVersion() + 1));
+    }
+
+    /**
+     * Publishes a new snapshot of the current blocks. Called by blocks of
+     * this composition whose chance or state changed.
+     */
+    synchronized void refresh() {
+        publish(getBlocks());
+    }
+
+    /**
+     * Gets the snapshot of this composition in its current version. Fills
+     * take the snapshot once and use it until they are done, so changes
+     * made meanwhile only apply to the next fill.
+     *
+     * @return the current snapshot
+     */
+    public CompiledComposition getCompiled() {
+        return compiled.get();
+    }
+
+    /**
+     * Gets the block of this composition matching a block state in the
+     * world.
+     *
+     * @param state the state of the block in the world
+     * @return the matching block, empty if the state is not part of this composition
+     * @see CompiledComposition#getBlock(BlockState)
+     */
+    public Optional<CataMineBlock> getBlock(BlockState state) {
+        return compiled.get().getBlock(state);
     }
 
     public String getName() {
@@ -66,29 +111,37 @@ public class CataMineComposition implements Rewardable, Identifiable, Choice, Se
 
     public void setChance(double chance) {
         this.chance = chance;
+        ChoiceManager<?> owner = this.owner;
+        if (owner != null) owner.refresh();
     }
 
-    public double getChanceSum() {
-        return blocks.stream().mapToDouble(CataMineBlock::getChance).sum();
+    @Override
+    public void setOwner(@Nullable ChoiceManager<?> owner) {
+        this.owner = owner;
     }
 
-    public List<CataMineBlock> getBlocks() {
-        return blocks;
+    public double getChanceSum() {
+        return getBlocks().stream().mapToDouble(CataMineBlock::getChance).sum();
     }
 
-    public void setBlocks(List<CataMineBlock> blocks) {
-        this.blocks = blocks;
-        updateRandomPattern();
+    /**
+     * Gets the blocks of this composition.
+     *
+     * @return an unmodifiable snapshot of the blocks
+     */
+    public List<CataMineBlock> getBlocks() {
+        return compiled.get().getBlocks();
     }
 
-    public RandomPattern getRandomPattern() {
-        return randomPattern;
+    public synchronized void setBlocks(List<CataMineBlock> blocks) {
+        publish(blocks);
     }
 
     @Override
     public void serialize(ConfigurationSection section) {
         section.set("name", name);
         section.set("chance", chance);
+        List<CataMineBlock> blocks = getBlocks();
         ConfigurationSection blocksSection = section.createSection("blocks");
         for (int i = 0; i < blocks.size(); i++) {
             blocks.get(i).serialize(blocksSection.createSection("block-" + i));
@@ -126,8 +179,7 @@ public class CataMineComposition implements Rewardable, Identifiable, Choice, Se
         return "CataMineComposition{" +
                 "name='" + name + '\'' +
                 ", chance=" + chance +
-                ", blocks=" + blocks +
-                ", randomPattern=" + randomPattern +
+                ", compiled=" + compiled.get() +
                 '}';
     }
 }
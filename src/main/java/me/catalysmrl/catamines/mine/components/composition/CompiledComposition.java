@@ -0,0 +1,147 @@
+package me.catalysmrl.catamines.mine.components.composition;
+
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import me.catalysmrl.catamines.utils.worldedit.AliasPattern;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the blocks of a {@link CataMineComposition} in one
+ * version: the blocks, the palette of blocks with a chance above zero, their
+ * weights, the pattern sampling them and the lookup from block states to
+ * blocks. A composition publishes a new snapshot on every change, so a fill
+ * holding a snapshot sees the same blocks from its first to its last slice.
+ * <p>
+ * Instances may be shared between threads.
+ */
+public final class CompiledComposition {
+
+    static final CompiledComposition EMPTY = new CompiledComposition(0, List.of(), List.of(), new double[0], null, Map.of(), Map.of());
+
+    private final long version;
+    private final List<CataMineBlock> blocks;
+    private final List<BaseBlock> palette;
+    private final double[] weights;
+    private final AliasPattern pattern;
+
+    private final Map<BlockState, CataMineBlock> byState;
+    private final Map<BlockType, CataMineBlock> byType;
+
+    private CompiledComposition(long version, List<CataMineBlock> blocks, List<BaseBlock> palette, double[] weights,
+                                @Nullable AliasPattern pattern, Map<BlockState, CataMineBlock> byState,
+                                Map<BlockType, CataMineBlock> byType) {
+        this.version = version;
+        this.blocks = blocks;
+        this.palette = palette;
+        this.weights = weights;
+        this.pattern = pattern;
+        this.byState = byState;
+        this.byType = byType;
+    }
+
+    /**
+     * Compiles the blocks of a composition. The chances of the blocks are
+     * read once, later changes to them are not reflected by the snapshot.
+     *
+     * @param blocks  the blocks of the composition
+     * @param version the version of the composition
+     * @return the compiled snapshot
+     */
+    static CompiledComposition compile(List<CataMineBlock> blocks, long version) {
+        List<CataMineBlock> weighted = blocks.stream().filter(block -> block.getChance() > 0).toList();
+        List<BaseBlock> palette = weighted.stream().map(CataMineBlock::getBaseBlock).toList();
+        double[] weights = weighted.stream().mapToDouble(CataMineBlock::getChance).toArray();
+        AliasPattern pattern = palette.isEmpty() ? null : AliasPattern.of(palette, weights);
+
+        Map<BlockState, CataMineBlock> byState = new HashMap<>();
+        Map<BlockType, CataMineBlock> byType = new HashMap<>();
+        Set<BlockType> ambiguous = new HashSet<>();
+
+        for (CataMineBlock block : blocks) {
+            BlockState state = block.getBaseBlock().toImmutableState();
+            byState.putIfAbsent(state, block);
+            if (byType.putIfAbsent(state.getBlockType(), block) != null) {
+                ambiguous.add(state.getBlockType());
+            }
+        }
+        byType.keySet().removeAll(ambiguous);
+
+        return new CompiledComposition(version, List.copyOf(blocks), palette, weights, pattern,
+                Map.copyOf(byState), Map.copyOf(byType));
+    }
+
+    /**
+     * Gets the block of this snapshot matching a block state in the world.
+     * States are matched exactly first. If no block has the exact state,
+     * e.g. because physics changed a property, the block of the same type
+     * is used if it is the only one of that type.
+     *
+     * @param state the state of the block in the world
+     * @return the matching block, empty if the state is not part of this snapshot
+     */
+    public Optional<CataMineBlock> getBlock(BlockState state) {
+        CataMineBlock block = byState.get(state);
+        return Optional.ofNullable(block != null ? block : byType.get(state.getBlockType()));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets all blocks of this snapshot, including blocks without a chance.
+     *
+     * @return the unmodifiable blocks
+     */
+    public List<CataMineBlock> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Gets the blocks placed by fills, which are the blocks with a chance
+     * above zero, in the order of their weights.
+     *
+     * @return the unmodifiable palette
+     */
+    public List<BaseBlock> getPalette() {
+        return palette;
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Gets the pattern picking the palette by the weights.
+     *
+     * @return the pattern, null if the palette is empty
+     */
+    public @Nullable AliasPattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns true if fills of this snapshot place blocks.
+     *
+     * @return true if the palette is not empty
+     */
+    public boolean isFillable() {
+        return pattern != null;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledComposition{" +
+                "version=" + version +
+                ", palette=" + palette +
+                '}';
+    }
+}
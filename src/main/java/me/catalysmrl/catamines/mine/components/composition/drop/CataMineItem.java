@@ -2,15 +2,18 @@ package me.catalysmrl.catamines.mine.components.composition.drop;
 
 import me.catalysmrl.catamines.api.serialization.DeserializationException;
 import me.catalysmrl.catamines.api.serialization.SectionSerializable;
+import me.catalysmrl.catamines.mine.components.composition.CataMineBlock;
 import me.catalysmrl.catamines.mine.reward.Rewardable;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
 public class CataMineItem implements Rewardable, SectionSerializable {
 
     private ItemStack item;
     private double chance;
     private boolean fortune;
+    private volatile CataMineBlock owner;
 
     public CataMineItem(ItemStack item) {
         this.item = item;
@@ -43,6 +46,23 @@ public class CataMineItem implements Rewardable, SectionSerializable {
 
     public void setItem(ItemStack item) {
         this.item = item;
+        invalidateOwner();
+    }
+
+    public int getAmount() {
+        return item.getAmount();
+    }
+
+    /**
+     * Sets the amount of the dropped item. Use this instead of changing the
+     * amount of {@link #getItem()}, so the loot table of the block is
+     * compiled again.
+     *
+     * @param amount the amount to drop
+     */
+    public void setAmount(int amount) {
+        item.setAmount(amount);
+        invalidateOwner();
     }
 
     public double getChance() {
@@ -51,6 +71,7 @@ public class CataMineItem implements Rewardable, SectionSerializable {
 
     public void setChance(double chance) {
         this.chance = chance;
+        invalidateOwner();
     }
 
     public boolean isFortune() {
@@ -59,5 +80,21 @@ public class CataMineItem implements Rewardable, SectionSerializable {
 
     public void setFortune(boolean fortune) {
         this.fortune = fortune;
+        invalidateOwner();
+    }
+
+    /**
+     * Sets the block dropping this item, whose compiled loot table is
+     * discarded whenever this item changes.
+     *
+     * @param owner the block, null if the item was removed from it
+     */
+    public void setOwner(@Nullable CataMineBlock owner) {
+        this.owner = owner;
+    }
+
+    private void invalidateOwner() {
+        CataMineBlock owner = this.owner;
+        if (owner != null) owner.invalidateLootTable();
     }
 }
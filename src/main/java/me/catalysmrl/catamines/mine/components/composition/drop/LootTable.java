@@ -0,0 +1,179 @@
+package me.catalysmrl.catamines.mine.components.composition.drop;
+
+import me.catalysmrl.catamines.mine.components.composition.CataMineBlock.DropType;
+import me.catalysmrl.catamines.utils.random.AliasTable;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The loot items of a block compiled for fast evaluation on every break.
+ * Items are kept as shared template stacks that are never handed out for
+ * modification. Amounts for fortune levels are precomputed, and blocks
+ * dropping a {@link DropType#SINGLE single} item sample it from an alias
+ * table, so rolling a table costs one random number per item at most.
+ * <p>
+ * Tables are immutable and compiled again whenever the loot of the block
+ * changes.
+ */
+public final class LootTable {
+
+    /**
+     * Highest fortune level with precomputed amounts. Higher levels are
+     * computed on every roll.
+     */
+    public static final int MAX_PRECOMPUTED_FORTUNE = 10;
+
+    public static final LootTable EMPTY = new LootTable(DropType.CUSTOM, new Entry[0], null, -1);
+
+    private final DropType dropType;
+    private final Entry[] entries;
+    private final AliasTable singleTable;
+    private final int nothingIndex;
+
+    private LootTable(DropType dropType, Entry[] entries, AliasTable singleTable, int nothingIndex) {
+        this.dropType = dropType;
+        this.entries = entries;
+        this.singleTable = singleTable;
+        this.nothingIndex = nothingIndex;
+    }
+
+    /**
+     * Compiles the loot items of a block. Items without a chance to drop
+     * are left out.
+     *
+     * @param dropType the drop type of the block
+     * @param items    the loot items of the block
+     * @return the compiled table
+     */
+    public static LootTable compile(DropType dropType, List<CataMineItem> items) {
+        List<Entry> entries = new ArrayList<>(items.size());
+        double chanceSum = 0;
+        for (CataMineItem item : items) {
+            if (item.getItem() == null || item.getChance() <= 0) continue;
+
+            entries.add(new Entry(item.getItem().clone(), Math.min(item.getChance(), 100) / 100d, item.isFortune()));
+            chanceSum += Math.min(item.getChance(), 100);
+        }
+
+        if (entries.isEmpty()) return EMPTY;
+
+        Entry[] compiled = entries.toArray(new Entry[0]);
+        if (dropType != DropType.SINGLE) return new LootTable(dropType, compiled, null, -1);
+
+        // chances of single drops are weights, the rest up to 100 drops nothing
+        boolean canDropNothing = chanceSum < 100;
+        double[] weights = new double[compiled.length + (canDropNothing ? 1 : 0)];
+        for (int i = 0; i < compiled.length; i++) {
+            weights[i] = compiled[i].chance;
+        }
+        if (canDropNothing) weights[compiled.length] = 1 - chanceSum / 100d;
+
+        return new LootTable(dropType, compiled, AliasTable.of(weights), canDropNothing ? compiled.length : -1);
+    }
+
+    /**
+     * Rolls this table and passes every dropped item to the consumer.
+     * Only items that actually drop cost anything beyond the random rolls.
+     *
+     * @param random  the source of randomness
+     * @param fortune the fortune level of the tool, 0 if none
+     * @param drops   receives the template and amount of every drop
+     */
+    public void roll(RandomGenerator random, int fortune, DropConsumer drops) {
+        if (entries.length == 0) return;
+
+        if (singleTable != null) {
+            int index = singleTable.sample(random);
+            if (index != nothingIndex) entries[index].drop(random, fortune, drops);
+            return;
+        }
+
+        for (Entry entry : entries) {
+            if (entry.chance >= 1 || random.nextDouble() < entry.chance) {
+                entry.drop(random, fortune, drops);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the vanilla drops of the block are replaced by this
+     * table. Only blocks dropping {@link DropType#ALL all} items keep their
+     * vanilla drops.
+     *
+     * @return true if vanilla drops have to be cancelled
+     */
+    public boolean replacesVanillaDrops() {
+        return dropType != DropType.ALL && entries.length > 0;
+    }
+
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Receives the drops of a rolled table.
+     */
+    @FunctionalInterface
+    public interface DropConsumer {
+
+        /**
+         * Accepts a drop. The template is shared and must not be modified,
+         * it has to be cloned before handing it to the world or a player.
+         *
+         * @param template the template of the dropped item
+         * @param amount   the amount to drop, may exceed the maximum stack size
+         */
+        void accept(ItemStack template, int amount);
+    }
+
+    private static final class Entry {
+
+        private final ItemStack template;
+        private final double chance;
+        private final boolean fortune;
+        private final int[][] fortuneAmounts;
+
+        private Entry(ItemStack template, double chance, boolean fortune) {
+            this.template = template;
+            this.chance = chance;
+            this.fortune = fortune;
+            this.fortuneAmounts = fortune ? precomputeAmounts(template.getAmount()) : null;
+        }
+
+        /**
+         * Precomputes the amounts for every fortune level. Level {@code n}
+         * rolls one of {@code n + 2} equally likely multipliers: 1 twice,
+         * then 2 up to {@code n + 1}, like vanilla ores.
+         */
+        private static int[][] precomputeAmounts(int baseAmount) {
+            int[][] amounts = new int[MAX_PRECOMPUTED_FORTUNE + 1][];
+            for (int level = 0; level <= MAX_PRECOMPUTED_FORTUNE; level++) {
+                amounts[level] = new int[level + 2];
+                for (int i = 0; i < level + 2; i++) {
+                    amounts[level][i] = baseAmount * Math.max(1, i);
+                }
+            }
+            return amounts;
+        }
+
+        private void drop(RandomGenerator random, int level, DropConsumer drops) {
+            int amount = template.getAmount();
+            if (fortune && level > 0) {
+                if (level <= MAX_PRECOMPUTED_FORTUNE) {
+                    int[] distribution = fortuneAmounts[level];
+                    amount = distribution[random.nextInt(distribution.length)];
+                } else {
+                    amount *= Math.max(1, random.nextInt(level + 2));
+                }
+            }
+            drops.accept(template, amount);
+        }
+    }
+}
@@ -1,7 +1,19 @@
 package me.catalysmrl.catamines.mine.components.manager.choice;
 
+import org.jetbrains.annotations.Nullable;
+
 public interface Choice {
 
     double getChance();
 
+    /**
+     * Called when this choice is added to or removed from a {@link ChoiceManager}.
+     * Choices whose chance can change have to keep the manager and call
+     * {@link ChoiceManager#refresh()} when it does.
+     *
+     * @param owner the manager of this choice, null if it was removed
+     */
+    default void setOwner(@Nullable ChoiceManager<?> owner) {
+    }
+
 }
@@ -1,50 +1,119 @@
 package me.catalysmrl.catamines.mine.components.manager.choice;
 
+import me.catalysmrl.catamines.utils.random.WeightedSelection;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
-
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses between weighted choices, e.g. the regions of a mine or the
+ * compositions of a region. The choices and their chances are kept in an
+ * immutable {@link WeightedSelection} snapshot that is replaced on every
+ * change, so reading the choices is safe from any thread. Choices refresh
+ * the snapshot of their manager when their chance changes.
+ *
+ * @param <T> the type of the choices
+ */
 public class ChoiceManager<T extends Identifiable & Choice> {
 
-    private T current;
-    private T upcoming;
+    private volatile T current;
+    private volatile T upcoming;
 
-    private final List<T> choices = new ArrayList<>();
-    private double max = 0;
+    private volatile WeightedSelection<T> selection = WeightedSelection.empty();
 
     public ChoiceManager() {
     }
 
     public ChoiceManager(List<T> choices) {
-        this.choices.addAll(choices);
+        this.selection = WeightedSelection.of(choices, Choice::getChance);
+        for (T choice : choices) {
+            choice.setOwner(this);
+        }
         next();
     }
 
+    /**
+     * Makes the upcoming choice the current one and selects a new upcoming
+     * choice by the chances of all choices.
+     */
     public void next() {
-        current = upcoming;
+        next(ThreadLocalRandom.current());
+    }
 
-        double randomDouble = ThreadLocalRandom.current().nextDouble();
-        double offset = 0;
+    /**
+     * Makes the upcoming choice the current one and selects a new upcoming
+     * choice with the given generator.
+     *
+     * @param random the source of randomness
+     */
+    public synchronized void next(RandomGenerator random) {
+        current = upcoming;
+        upcoming = getSelection().select(random).orElse(null);
+    }
 
-        for (T choice : choices) {
-            if (randomDouble <= (offset + choice.getChance()) / max) {
-                upcoming = choice;
-                return;
-            }
+    /**
+     * Selects a choice with the given generator and makes it the current
+     * one right away, skipping the upcoming choice. The upcoming choice
+     * is selected again with the same generator. Used by seeded resets,
+     * whose choice must only depend on their seed.
+     *
+     * @param random the source of randomness
+     * @return the selected choice, empty if there are no choices
+     */
+    public synchronized Optional<T> choose(RandomGenerator random) {
+        WeightedSelection<T> snapshot = getSelection();
+        current = snapshot.select(random).orElse(null);
+        upcoming = snapshot.select(random).orElse(null);
+        return Optional.ofNullable(current);
+    }
 
-            offset += choice.getChance();
-        }
+    /**
+     * Selects a choice with the given generator like {@link #choose(RandomGenerator)}
+     * does, without changing the current and upcoming choice.
+     *
+     * @param random the source of randomness
+     * @return the selected choice, empty if there are no choices
+     */
+    public Optional<T> peek(RandomGenerator random) {
+        return getSelection().select(random);
     }
 
-    public void add(T choice) {
+    public synchronized void add(T choice) {
+        List<T> choices = new ArrayList<>(selection.getItems());
         choices.add(choice);
-        max += choice.getChance();
+        selection = WeightedSelection.of(choices, Choice::getChance);
+        choice.setOwner(this);
         if (upcoming == null) upcoming = choice;
     }
 
-    public void remove(T choice) {
-        choices.remove(choice);
+    public synchronized void remove(T choice) {
+        List<T> choices = new ArrayList<>(selection.getItems());
+        if (!choices.remove(choice)) return;
+
+        selection = WeightedSelection.of(choices, Choice::getChance);
+        choice.setOwner(null);
+        if (current == choice) current = null;
+        if (upcoming == choice) upcoming = selection.select(ThreadLocalRandom.current()).orElse(null);
+    }
+
+    /**
+     * Rebuilds the snapshot with the current chances of the choices.
+     * Called by the choices when their chance changed.
+     */
+    public synchronized void refresh() {
+        selection = WeightedSelection.of(selection.getItems(), Choice::getChance);
+    }
+
+    /**
+     * Gets the snapshot of the choices and their chances.
+     *
+     * @return the current snapshot
+     */
+    public WeightedSelection<T> getSelection() {
+        return selection;
     }
 
     public Optional<T> get(String name) {
@@ -67,8 +136,13 @@ public class ChoiceManager<T extends Identifiable & Choice> {
         this.upcoming = upcoming;
     }
 
+    /**
+     * Gets the choices of this manager.
+     *
+     * @return an unmodifiable snapshot of the choices
+     */
     public List<T> getChoices() {
-        return choices;
+        return selection.getItems();
     }
 
     @Override
@@ -76,7 +150,7 @@ public class ChoiceManager<T extends Identifiable & Choice> {
         return "ChoiceManager{" +
                 "current=" + current +
                 ", upcoming=" + upcoming +
-                ", choices=" + choices +
+                ", choices=" + selection.getItems() +
                 '}';
     }
 }
@@ -1,8 +1,15 @@
 package me.catalysmrl.catamines.mine.components.manager.controller;
 
 import me.catalysmrl.catamines.api.mine.CataMine;
+import me.catalysmrl.catamines.api.mine.ResetPriority;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.api.serialization.SectionSerializable;
+import me.catalysmrl.catamines.mine.components.region.CataMineRegion;
+import me.catalysmrl.catamines.mine.components.region.tracking.BlockCounter;
 import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
 
 public class CataMineController implements SectionSerializable {
 
@@ -13,7 +20,9 @@ public class CataMineController implements SectionSerializable {
     private double resetPercentage;
 
     private int countdown;
-    private long blockCount;
+
+    private Long seed;
+    private long resetCount;
 
     public CataMineController(CataMine mine) {
         this.mine = mine;
@@ -44,9 +53,94 @@ public class CataMineController implements SectionSerializable {
         return false;
     }
 
+    /**
+     * Resets every region of the mine whose remaining blocks dropped to
+     * the reset percentage. Breaking blocks already triggers these resets
+     * immediately, so this only catches regions whose counters changed
+     * otherwise, e.g. after changing the reset percentage.
+     *
+     * @return true if a reset was triggered
+     */
     public boolean tickPercentage() {
-        // Implement logic for PERCENTAGE mode
-        return false;
+        boolean triggered = false;
+        for (CataMineRegion region : mine.getRegionManager().getChoices()) {
+            if (region.hasBounds() && region.getBlockCounter().hasReached(resetPercentage)) {
+                triggered |= resetByPercentage(region);
+            }
+        }
+        return triggered;
+    }
+
+    /**
+     * Counts a block broken in a region of this mine. If the mine resets by
+     * percentage and the remaining blocks drop to the reset percentage, the
+     * region is queued for reset right away.
+     *
+     * @param region the region the block was broken in
+     */
+    public void onBlockBreak(CataMineRegion region) {
+        onBlocksBreak(region, 1);
+    }
+
+    /**
+     * Counts many blocks broken at once in a region of this mine, checking
+     * the reset percentage only once.
+     *
+     * @param region the region the blocks were broken in
+     * @param count  the number of broken blocks
+     */
+    public void onBlocksBreak(CataMineRegion region, int count) {
+        BlockCounter counter = region.getBlockCounter();
+        counter.recordMined(count);
+
+        if (resetMode != ResetMode.TIME && counter.hasReached(resetPercentage)) {
+            resetByPercentage(region);
+        }
+    }
+
+    /**
+     * Counts a block placed in a region of this mine.
+     *
+     * @param region the region the block was placed in
+     */
+    public void onBlockPlace(CataMineRegion region) {
+        region.getBlockCounter().recordPlaced();
+    }
+
+    /**
+     * Queues a region for reset unless a reset of it is pending already.
+     * The pending flag is cleared once the reset finished, whether it
+     * succeeded or not.
+     */
+    private boolean resetByPercentage(CataMineRegion region) {
+        BlockCounter counter = region.getBlockCounter();
+        if (!counter.tryBeginReset()) return false;
+
+        if (resetMode == ResetMode.TIME_PERCENTAGE) countdown = resetDelay;
+
+        mine.getPlugin().getMineManager().resetRegion(region, ResetPriority.SCHEDULED, () -> nextResetSeed().orElse(null))
+                .whenComplete((result, throwable) -> counter.clearPendingReset());
+        return true;
+    }
+
+    /**
+     * Advances the reset counter of the mine and derives the seed of the
+     * reset from it.
+     *
+     * @return the seed of the reset, empty if the mine is not seeded
+     */
+    public Optional<ResetSeed> nextResetSeed() {
+        long count = resetCount++;
+        return seed == null ? Optional.empty() : Optional.of(ResetSeed.of(seed, count));
+    }
+
+    /**
+     * Gets the seed of the next reset without advancing the reset counter.
+     *
+     * @return the seed of the next reset, empty if the mine is not seeded
+     */
+    public Optional<ResetSeed> peekResetSeed() {
+        return seed == null ? Optional.empty() : Optional.of(ResetSeed.of(seed, resetCount));
     }
 
     @Override
@@ -56,6 +150,8 @@ public class CataMineController implements SectionSerializable {
         section.set("reset-percentage", resetPercentage);
 
         section.set("countdown", countdown);
+        section.set("seed", seed);
+        section.set("reset-count", resetCount);
     }
 
     public static CataMineController deserialize(ConfigurationSection section, CataMine mine) {
@@ -70,6 +166,8 @@ public class CataMineController implements SectionSerializable {
         controller.setResetDelay(resetDelay);
         controller.setResetPercentage(resetPercentage);
         controller.setCountdown(countdown);
+        if (section.isLong("seed") || section.isInt("seed")) controller.setSeed(section.getLong("seed"));
+        controller.setResetCount(section.getLong("reset-count", 0));
         return controller;
     }
 
@@ -105,12 +203,51 @@ public class CataMineController implements SectionSerializable {
         this.countdown = countdown;
     }
 
+    /**
+     * Gets the number of blocks left in all regions of the mine.
+     *
+     * @return the remaining blocks
+     */
     public long getBlockCount() {
-        return blockCount;
+        long remaining = 0;
+        for (CataMineRegion region : mine.getRegionManager().getChoices()) {
+            remaining += region.getBlockCounter().getRemaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Gets the seed of the mine. Seeded mines derive the region, the
+     * composition and the blocks of every reset from the seed and the
+     * reset counter.
+     *
+     * @return the seed, empty if resets are random
+     */
+    public Optional<Long> getSeed() {
+        return Optional.ofNullable(seed);
+    }
+
+    /**
+     * Sets the seed of the mine.
+     *
+     * @param seed the seed, or null for random resets
+     */
+    public void setSeed(@Nullable Long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the number of resets of the mine so far, which is the counter
+     * the seed of the next reset is derived from.
+     *
+     * @return the reset counter
+     */
+    public long getResetCount() {
+        return resetCount;
     }
 
-    public void setBlockCount(long blockCount) {
-        this.blockCount = blockCount;
+    public void setResetCount(long resetCount) {
+        this.resetCount = resetCount;
     }
 
     public enum ResetMode {
@@ -1,19 +1,39 @@
 package me.catalysmrl.catamines.mine.components.region;
 
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import me.catalysmrl.catamines.CataMines;
 import me.catalysmrl.catamines.api.serialization.DeserializationException;
 import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
 import me.catalysmrl.catamines.mine.components.manager.choice.ChoiceManager;
+import me.catalysmrl.catamines.mine.components.region.tracking.BlockCounter;
+import me.catalysmrl.catamines.mine.components.region.tracking.ChangeMask;
+import me.catalysmrl.catamines.mine.components.region.tracking.ChangeTracker;
+import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public abstract class AbstractCataMineRegion implements CataMineRegion {
 
     protected String name;
-    protected double chance;
+    protected volatile double chance;
+    protected FillMode fillMode = FillMode.FULL;
+    protected EditSessionSettings editSessionSettings;
     protected ChoiceManager<CataMineComposition> compositionManager;
 
+    private ChangeTracker changeTracker;
+    private CataMineComposition lastFilledComposition;
+    private long lastFilledVersion;
+    private volatile BlockCounter blockCounter;
+    private volatile ChoiceManager<?> owner;
+
     public AbstractCataMineRegion(String name) {
         this.name = name;
         this.compositionManager = new ChoiceManager<>();
@@ -24,6 +44,146 @@ public abstract class AbstractCataMineRegion implements CataMineRegion {
         section.set("region-type", getType().toString());
         section.set("name", name);
         section.set("chance", chance);
+        section.set("fill-mode", fillMode.toString());
+        if (editSessionSettings != null) {
+            editSessionSettings.serialize(section.createSection("edit-session"));
+        }
+    }
+
+    /**
+     * Deserializes the properties shared by all regions into this region.
+     *
+     * @param section the section of the region
+     * @throws DeserializationException if a property is invalid
+     */
+    protected void deserializeProperties(ConfigurationSection section) throws DeserializationException {
+        setChance(section.getDouble("chance", 0d));
+
+        try {
+            setFillMode(FillMode.valueOf(section.getString("fill-mode", FillMode.FULL.toString())));
+        } catch (IllegalArgumentException exception) {
+            throw new DeserializationException("Invalid fill mode in region " + name, exception);
+        }
+
+        ConfigurationSection editSessionSection = section.getConfigurationSection("edit-session");
+        if (editSessionSection != null) {
+            setEditSessionSettings(EditSessionSettings.deserialize(editSessionSection, EditSessionSettings.getDefault()));
+        }
+    }
+
+    @Override
+    public void markChanged(BlockVector3 position) {
+        getChangeTracker().mark(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+    }
+
+    /**
+     * Drains the positions changed since the last fill and makes the upcoming
+     * fill the new baseline. The changes are only returned if this region
+     * rewrites changed blocks only and the upcoming fill uses the same
+     * composition in the same state as the last one. Otherwise, the region
+     * has to be filled completely.
+     *
+     * @param composition the composition of the upcoming fill, null if the region has none
+     * @param version     the version of the composition the fill uses
+     * @return the changed positions if a differential fill is possible
+     */
+    protected synchronized Optional<ChangeMask> drainChanges(@Nullable CataMineComposition composition, long version) {
+        ChangeTracker tracker = getChangeTracker();
+
+        boolean differential = fillMode == FillMode.CHANGED
+                && tracker.hasBaseline()
+                && lastFilledComposition == composition
+                && lastFilledVersion == version;
+
+        ChangeMask changes = tracker.drain();
+        lastFilledComposition = composition;
+        lastFilledVersion = version;
+
+        return differential ? Optional.of(changes) : Optional.empty();
+    }
+
+    /**
+     * Applies a prepared fill in one edit session and completes it like a
+     * queued reset: the block counter is reset to the volume and
+     * {@link #onFillComplete()} is called. The mask and changed positions
+     * of the fill are applied, same as for a queued reset.
+     *
+     * @param fill   the fill prepared by {@link #prepareFill()}
+     * @param region the part of the world covering the whole region
+     */
+    protected void applyFill(RegionFill fill, Region region) {
+        try (EditSession editSession = WorldEditUtils.newEditSession(getWorld(), getEditSessionSettings())) {
+            fill.apply(editSession, region);
+        } catch (MaxChangedBlocksException exception) {
+            exception.printStackTrace();
+        }
+
+        getBlockCounter().reset(getVolume());
+        onFillComplete();
+    }
+
+    /**
+     * Updates this region in the region index of the mine manager after
+     * its bounds changed. May be called from any thread, the index is
+     * updated on the main thread.
+     */
+    protected void reindex() {
+        CataMines plugin = CataMines.getInstance();
+        if (plugin == null || !plugin.isEnabled()) return;
+
+        if (Bukkit.isPrimaryThread()) {
+            plugin.getMineManager().updateRegion(this);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, () -> plugin.getMineManager().updateRegion(this));
+        }
+    }
+
+    /**
+     * Discards all tracked changes, so the next fill rewrites the whole
+     * region. Has to be called whenever the shape of the region changes.
+     */
+    protected synchronized void invalidateChanges() {
+        changeTracker = null;
+        lastFilledComposition = null;
+        blockCounter = null;
+    }
+
+    /**
+     * Gets the block counter of this region. Until the region is filled
+     * for the first time, it is assumed to be full.
+     *
+     * @return the block counter
+     */
+    @Override
+    public BlockCounter getBlockCounter() {
+        BlockCounter counter = blockCounter;
+        if (counter == null) {
+            synchronized (this) {
+                counter = blockCounter;
+                if (counter == null) {
+                    counter = new BlockCounter(getVolume());
+                    blockCounter = counter;
+                }
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Gets the change tracker of this region. A new tracker is created
+     * whenever the bounds of the region change.
+     *
+     * @return the change tracker
+     */
+    public synchronized ChangeTracker getChangeTracker() {
+        BlockVector3 min = getMinimumPoint();
+        BlockVector3 max = getMaximumPoint();
+
+        if (changeTracker == null || !changeTracker.matches(min, max)) {
+            changeTracker = new ChangeTracker(min, max);
+        }
+
+        return changeTracker;
     }
 
     public void serializeCompositions(ConfigurationSection compositionsSection) {
@@ -60,6 +220,36 @@ public abstract class AbstractCataMineRegion implements CataMineRegion {
 
     public void setChance(double chance) {
         this.chance = chance;
+        ChoiceManager<?> owner = this.owner;
+        if (owner != null) owner.refresh();
+    }
+
+    @Override
+    public void setOwner(@Nullable ChoiceManager<?> owner) {
+        this.owner = owner;
+    }
+
+    public FillMode getFillMode() {
+        return fillMode;
+    }
+
+    public void setFillMode(FillMode fillMode) {
+        this.fillMode = fillMode;
+    }
+
+    @Override
+    public EditSessionSettings getEditSessionSettings() {
+        return editSessionSettings == null ? EditSessionSettings.getDefault() : editSessionSettings;
+    }
+
+    @Override
+    public void setEditSessionSettings(@Nullable EditSessionSettings editSessionSettings) {
+        this.editSessionSettings = editSessionSettings;
+    }
+
+    @Override
+    public boolean hasEditSessionSettings() {
+        return editSessionSettings != null;
     }
 
     @Override
@@ -72,6 +262,8 @@ public abstract class AbstractCataMineRegion implements CataMineRegion {
         return "AbstractCataMineRegion{" +
                 "name='" + name + '\'' +
                 ", chance=" + chance +
+                ", fillMode=" + fillMode +
+                ", editSessionSettings=" + editSessionSettings +
                 ", compositionManager=" + compositionManager +
                 '}';
     }
@@ -1,11 +1,21 @@
 package me.catalysmrl.catamines.mine.components.region;
 
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockState;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.api.serialization.SectionSerializable;
+import me.catalysmrl.catamines.mine.components.composition.BlockMatch;
+import me.catalysmrl.catamines.mine.components.composition.CataMineBlock;
 import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
 import me.catalysmrl.catamines.mine.components.manager.choice.Choice;
 import me.catalysmrl.catamines.mine.components.manager.choice.ChoiceManager;
 import me.catalysmrl.catamines.mine.components.manager.choice.Identifiable;
+import me.catalysmrl.catamines.mine.components.region.tracking.BlockCounter;
 import me.catalysmrl.catamines.mine.reward.Rewardable;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
 
 public interface CataMineRegion extends Rewardable, Identifiable, Choice, SectionSerializable {
 
@@ -15,14 +25,154 @@ public interface CataMineRegion extends Rewardable, Identifiable, Choice, Sectio
 
     void fill();
 
+    /**
+     * Prepares the next reset of this region. This selects the blocks
+     * to place and advances the composition like {@link #fill()} does,
+     * but leaves applying them to the caller.
+     *
+     * @return the fill of the upcoming reset, empty if there is nothing to fill
+     */
+    default Optional<RegionFill> prepareFill() {
+        return prepareFill(null);
+    }
+
+    /**
+     * Prepares the next reset of this region like {@link #prepareFill()}.
+     * If a seed is given, the composition and the blocks of the fill are
+     * derived from it instead of being random, so preparing a fill with
+     * the same seed always results in the same blocks.
+     *
+     * @param seed the seed of the reset, null for a random fill
+     * @return the fill of the upcoming reset, empty if there is nothing to fill
+     */
+    Optional<RegionFill> prepareFill(@Nullable ResetSeed seed);
+
+    /**
+     * Called once a fill prepared by {@link #prepareFill()} has been
+     * applied completely. Regions may use this to prepare their next reset.
+     */
+    default void onFillComplete() {
+    }
+
+    /**
+     * Returns true if the position is part of this region.
+     *
+     * @param position the position in the world of this region
+     * @return true if the region contains the position
+     */
+    boolean contains(BlockVector3 position);
+
+    /**
+     * Marks a position of this region as changed since the last fill.
+     * Regions with {@link FillMode#CHANGED} only rewrite changed positions
+     * on their next reset.
+     *
+     * @param position the changed position
+     */
+    void markChanged(BlockVector3 position);
+
+    /**
+     * Gets the counter of the blocks mined in this region since its last
+     * fill. It is reset to the volume of the region after every fill.
+     *
+     * @return the block counter
+     */
+    BlockCounter getBlockCounter();
+
+    FillMode getFillMode();
+
+    void setFillMode(FillMode fillMode);
+
+    /**
+     * Gets the settings of the EditSessions filling this region, falling
+     * back to the global default if the region has none of its own.
+     *
+     * @return the effective settings
+     */
+    EditSessionSettings getEditSessionSettings();
+
+    /**
+     * Sets the settings of the EditSessions filling this region.
+     *
+     * @param settings the settings, or null to use the global default
+     */
+    void setEditSessionSettings(@Nullable EditSessionSettings settings);
+
+    /**
+     * Returns true if this region has its own EditSession settings.
+     *
+     * @return true if the global default is overridden
+     */
+    boolean hasEditSessionSettings();
+
+    World getWorld();
+
+    BlockVector3 getMinimumPoint();
+
+    BlockVector3 getMaximumPoint();
+
     RegionType getType();
 
     ChoiceManager<CataMineComposition> getCompositionManager();
 
+    /**
+     * Resolves a block state in this region to the composition block it
+     * was placed from. The composition of the last fill is tried first,
+     * then the other compositions of this region. Each composition is a
+     * single hash lookup.
+     *
+     * @param state the state of the block in the world
+     * @return the matching block, empty if no composition contains the state
+     */
+    default Optional<BlockMatch> matchBlock(BlockState state) {
+        ChoiceManager<CataMineComposition> compositions = getCompositionManager();
+        CataMineComposition current = compositions.getCurrent().orElse(null);
+        if (current != null) {
+            Optional<CataMineBlock> block = current.getBlock(state);
+            if (block.isPresent()) return Optional.of(new BlockMatch(current, block.get()));
+        }
+
+        for (CataMineComposition composition : compositions.getChoices()) {
+            if (composition == current) continue;
+
+            Optional<CataMineBlock> block = composition.getBlock(state);
+            if (block.isPresent()) return Optional.of(new BlockMatch(composition, block.get()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns true if the bounds and volume of this region are known
+     * without loading anything. Regions whose bounds are not known yet
+     * are left out of the region index until they are.
+     *
+     * @return true if the bounds are known
+     */
+    default boolean hasBounds() {
+        return true;
+    }
+
+    /**
+     * Gets the number of blocks a fill of this region places. Block
+     * counters use it as their total.
+     *
+     * @return the number of blocks of this region
+     */
     long getVolume();
 
     enum RegionType {
         SELECTION,
         SCHEMATIC
     }
+
+    enum FillMode {
+        /**
+         * Every block of the region is rewritten on reset
+         */
+        FULL,
+        /**
+         * Only blocks that changed since the last reset are rewritten
+         */
+        CHANGED
+    }
 }
@@ -0,0 +1,108 @@
+package me.catalysmrl.catamines.mine.components.region;
+
+import com.sk89q.worldedit.util.SideEffect;
+import com.sk89q.worldedit.util.SideEffectSet;
+import me.catalysmrl.catamines.CataMines;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Settings of the EditSessions used to fill a region. Mines are refilled
+ * over and over, so by default no undo history is kept and neither
+ * neighbouring blocks nor physics are updated.
+ *
+ * @param history    whether the session records undo history
+ * @param lighting   whether light is recalculated
+ * @param neighbors  whether neighbouring blocks are notified
+ * @param physics    whether block updates and physics are applied
+ * @param validation whether placed blocks are validated, e.g. removing invalid tile entities
+ */
+public record EditSessionSettings(boolean history, boolean lighting, boolean neighbors, boolean physics, boolean validation) {
+
+    /**
+     * Settings optimised for mines: only lighting is kept, so mined out
+     * areas are not left dark.
+     */
+    public static final EditSessionSettings MINE_DEFAULTS = new EditSessionSettings(false, true, false, false, false);
+
+    /**
+     * The settings WorldEdit applies to a session if nothing is configured.
+     */
+    public static final EditSessionSettings WORLDEDIT_DEFAULTS = new EditSessionSettings(true, true, true, true, true);
+
+    public static final String[] OPTIONS = {"history", "lighting", "neighbors", "physics", "validation"};
+
+    /**
+     * Gets the global default settings, as configured under
+     * block-applicator.edit-session in config.yml.
+     *
+     * @return the default settings
+     */
+    public static EditSessionSettings getDefault() {
+        CataMines plugin = CataMines.getInstance();
+        if (plugin == null) return MINE_DEFAULTS;
+
+        return deserialize(plugin.getConfig().getConfigurationSection("block-applicator.edit-session"), MINE_DEFAULTS);
+    }
+
+    /**
+     * Reads settings from a section. Missing options are taken from the
+     * given defaults.
+     *
+     * @param section  the section to read, may be null
+     * @param defaults the settings to fall back to
+     * @return the read settings
+     */
+    public static EditSessionSettings deserialize(@Nullable ConfigurationSection section, EditSessionSettings defaults) {
+        if (section == null) return defaults;
+
+        return new EditSessionSettings(
+                section.getBoolean("history", defaults.history),
+                section.getBoolean("lighting", defaults.lighting),
+                section.getBoolean("neighbors", defaults.neighbors),
+                section.getBoolean("physics", defaults.physics),
+                section.getBoolean("validation", defaults.validation));
+    }
+
+    public void serialize(ConfigurationSection section) {
+        section.set("history", history);
+        section.set("lighting", lighting);
+        section.set("neighbors", neighbors);
+        section.set("physics", physics);
+        section.set("validation", validation);
+    }
+
+    /**
+     * Returns a copy of these settings with one option changed.
+     *
+     * @param option  one of {@link #OPTIONS}
+     * @param enabled the new value of the option
+     * @return the changed settings
+     * @throws IllegalArgumentException if the option does not exist
+     */
+    public EditSessionSettings with(String option, boolean enabled) {
+        return switch (option.toLowerCase(Locale.ROOT)) {
+            case "history" -> new EditSessionSettings(enabled, lighting, neighbors, physics, validation);
+            case "lighting" -> new EditSessionSettings(history, enabled, neighbors, physics, validation);
+            case "neighbors" -> new EditSessionSettings(history, lighting, enabled, physics, validation);
+            case "physics" -> new EditSessionSettings(history, lighting, neighbors, enabled, validation);
+            case "validation" -> new EditSessionSettings(history, lighting, neighbors, physics, enabled);
+            default -> throw new IllegalArgumentException("Unknown edit session option " + option);
+        };
+    }
+
+    /**
+     * Converts the side effect options to the set passed to WorldEdit.
+     *
+     * @return the side effects to apply
+     */
+    public SideEffectSet toSideEffectSet() {
+        return SideEffectSet.defaults()
+                .with(SideEffect.LIGHTING, lighting ? SideEffect.State.ON : SideEffect.State.OFF)
+                .with(SideEffect.NEIGHBORS, neighbors ? SideEffect.State.ON : SideEffect.State.OFF)
+                .with(SideEffect.UPDATE, physics ? SideEffect.State.ON : SideEffect.State.OFF)
+                .with(SideEffect.VALIDATION, validation ? SideEffect.State.ON : SideEffect.State.OFF);
+    }
+}
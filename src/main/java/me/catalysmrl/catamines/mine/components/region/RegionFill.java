@@ -0,0 +1,108 @@
+package me.catalysmrl.catamines.mine.components.region;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.function.mask.MaskIntersection;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.regions.Region;
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.region.tracking.ChangeMask;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Describes how a region is filled on reset. The fill is prepared once
+ * per reset and then applied to any number of slices of the region.
+ *
+ * @see CataMineRegion#prepareFill()
+ */
+public class RegionFill {
+
+    private final Pattern pattern;
+    private final Mask mask;
+    private final ChangeMask changes;
+    private final CataMineComposition composition;
+
+    /**
+     * @param pattern the pattern providing the blocks
+     * @param mask    the positions to fill, or null to fill every position of a slice
+     */
+    public RegionFill(Pattern pattern, @Nullable Mask mask) {
+        this(pattern, mask, null);
+    }
+
+    /**
+     * @param pattern the pattern providing the blocks
+     * @param mask    the positions to fill, or null to fill every position of a slice
+     * @param changes the changed positions to restrict the fill to, or null to fill
+     *                every position matched by the mask
+     */
+    public RegionFill(Pattern pattern, @Nullable Mask mask, @Nullable ChangeMask changes) {
+        this(pattern, mask, changes, null);
+    }
+
+    /**
+     * @param pattern     the pattern providing the blocks
+     * @param mask        the positions to fill, or null to fill every position of a slice
+     * @param changes     the changed positions to restrict the fill to, or null to fill
+     *                    every position matched by the mask
+     * @param composition the composition the pattern was created from, if any
+     */
+    public RegionFill(Pattern pattern, @Nullable Mask mask, @Nullable ChangeMask changes, @Nullable CataMineComposition composition) {
+        this.pattern = Objects.requireNonNull(pattern);
+        this.changes = changes;
+        this.composition = composition;
+
+        if (changes == null) {
+            this.mask = mask;
+        } else {
+            this.mask = mask == null ? changes : new MaskIntersection(changes, mask);
+        }
+    }
+
+    /**
+     * Applies this fill to a slice of the region.
+     *
+     * @param editSession the session to apply the blocks to
+     * @param slice       the part of the region to fill
+     * @return the number of affected blocks
+     * @throws MaxChangedBlocksException if the session exceeds its block limit
+     */
+    public int apply(EditSession editSession, Region slice) throws MaxChangedBlocksException {
+        if (changes != null && !changes.intersects(slice)) return 0;
+
+        return mask == null
+                ? editSession.setBlocks(slice, pattern)
+                : editSession.replaceBlocks(slice, mask, pattern);
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public Mask getMask() {
+        return mask;
+    }
+
+    /**
+     * Gets the composition this fill places blocks of.
+     *
+     * @return the composition, null if the fill is not based on one
+     */
+    @Nullable
+    public CataMineComposition getComposition() {
+        return composition;
+    }
+
+    /**
+     * Returns true if this fill only rewrites positions that changed
+     * since the last fill.
+     *
+     * @return true if the fill is differential
+     */
+    public boolean isDifferential() {
+        return changes != null;
+    }
+}
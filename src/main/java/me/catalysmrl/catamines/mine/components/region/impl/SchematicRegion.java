@@ -3,39 +3,197 @@ package me.catalysmrl.catamines.mine.components.region.impl;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.world.World;
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.api.serialization.DeserializationException;
 import me.catalysmrl.catamines.mine.components.region.AbstractCataMineRegion;
+import me.catalysmrl.catamines.mine.components.region.RegionFill;
+import me.catalysmrl.catamines.mine.components.region.membership.RegionMembership;
+import me.catalysmrl.catamines.utils.worldedit.CachedSchematic;
+import me.catalysmrl.catamines.utils.worldedit.ClipboardPasteMask;
+import me.catalysmrl.catamines.utils.worldedit.ClipboardPastePattern;
+import me.catalysmrl.catamines.utils.worldedit.SchematicCache;
 import me.catalysmrl.catamines.utils.worldedit.VectorParser;
-import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
 
 public class SchematicRegion extends AbstractCataMineRegion {
 
     private String schematicName;
     private World world;
     private BlockVector3 location;
-    private Clipboard clipboard;
+    private volatile Bounds bounds;
+    private volatile RegionMembership membership;
+    // weak, so the region does not keep the schematic alive once the cache evicted it
+    private WeakReference<CachedSchematic> membershipSource = new WeakReference<>(null);
 
     public SchematicRegion(String name, String schematicName, World world, BlockVector3 location) {
+        this(name, schematicName, world, location, null);
+    }
+
+    private SchematicRegion(String name, String schematicName, World world, BlockVector3 location, @Nullable Bounds bounds) {
         super(name);
         this.schematicName = schematicName;
         this.world = world;
         this.location = location;
-        this.clipboard = WorldEditUtils.loadSchematic(schematicName);
+        this.bounds = bounds;
+        preload();
     }
 
     public void redefine(String schematicName, World world, BlockVector3 location) {
         this.schematicName = schematicName;
         this.world = world;
         this.location = location;
-        this.clipboard = WorldEditUtils.loadSchematic(schematicName);
+        this.bounds = null;
+        synchronized (this) {
+            this.membership = null;
+            this.membershipSource = new WeakReference<>(null);
+        }
+        invalidateChanges();
+        reindex();
+        preload();
+    }
+
+    /**
+     * Starts loading the schematic in the background, so it is likely
+     * available once this region is first reset.
+     */
+    private void preload() {
+        String name = schematicName;
+        SchematicCache.get(name).thenAccept(schematic -> {
+            if (name.equals(schematicName)) updateBounds(schematic);
+        });
+    }
+
+    /**
+     * Gets the clipboard of the schematic from the {@link SchematicCache},
+     * waiting for it to be loaded if needed. Regions do not keep a
+     * reference to it, so unused clipboards can be evicted.
+     *
+     * @return the clipboard of this region
+     * @throws CompletionException if the schematic could not be loaded
+     */
+    private Clipboard getClipboard() {
+        CachedSchematic schematic = SchematicCache.get(schematicName).join();
+        updateBounds(schematic);
+        return schematic.clipboard();
+    }
+
+    /**
+     * Updates the bounds from the loaded schematic. If they were not known
+     * before or changed, the region is indexed again. The membership is
+     * compiled again for every schematic not compiled yet.
+     */
+    private void updateBounds(CachedSchematic schematic) {
+        Clipboard clipboard = schematic.clipboard();
+        Bounds updated = new Bounds(
+                clipboard.getMinimumPoint().subtract(clipboard.getOrigin()),
+                clipboard.getMaximumPoint().subtract(clipboard.getOrigin()),
+                schematic.blockCount());
+
+        Bounds previous = bounds;
+        bounds = updated;
+        if (previous == null || !previous.equals(updated)) {
+            if (previous != null) invalidateChanges();
+            reindex();
+        }
+        compileMembership(schematic, updated);
+    }
+
+    /**
+     * Compiles the positions the schematic places in the background, so
+     * {@link #contains(BlockVector3)} can answer without the schematic.
+     */
+    private void compileMembership(CachedSchematic schematic, Bounds schematicBounds) {
+        CataMines plugin = CataMines.getInstance();
+        if (plugin == null) return;
+
+        String name = schematicName;
+        BlockVector3 pasteLocation = location;
+        synchronized (this) {
+            if (membershipSource.get() == schematic) return;
+            membershipSource = new WeakReference<>(schematic);
+        }
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            RegionMembership compiled = RegionMembership.compile(
+                    pasteLocation.add(schematicBounds.min), pasteLocation.add(schematicBounds.max),
+                    new ClipboardPasteMask(schematic.clipboard(), pasteLocation));
+            if (name.equals(schematicName) && pasteLocation.equals(location)) membership = compiled;
+        });
+    }
+
+    private Bounds getBounds() {
+        Bounds current = bounds;
+        if (current != null) return current;
+
+        getClipboard();
+        return bounds;
     }
 
     @Override
     public void fill() {
-        WorldEditUtils.pasteSchematic(clipboard, world, location);
+        prepareFill().ifPresent(fill -> applyFill(fill, new CuboidRegion(world, getMinimumPoint(), getMaximumPoint())));
+    }
+
+    /**
+     * Prepares pasting the schematic. Schematics have no random blocks,
+     * so the seed has no effect.
+     */
+    @Override
+    public Optional<RegionFill> prepareFill(@Nullable ResetSeed seed) {
+        Clipboard clipboard;
+        try {
+            clipboard = getClipboard();
+        } catch (CompletionException exception) {
+            CataMines.getInstance().getLogger().log(Level.WARNING, "Could not load schematic " + schematicName + " of region " + name, exception.getCause());
+            return Optional.empty();
+        }
+
+        return Optional.of(new RegionFill(
+                new ClipboardPastePattern(clipboard, location),
+                new ClipboardPasteMask(clipboard, location),
+                drainChanges(null, 0).orElse(null)));
+    }
+
+    /**
+     * Returns true if the schematic places a block at the position. Until
+     * the schematic was loaded once and its membership compiled, no
+     * position is contained. Evicting the schematic afterwards does not
+     * change the answer.
+     */
+    @Override
+    public boolean contains(BlockVector3 position) {
+        RegionMembership compiled = membership;
+        return compiled != null && compiled.contains(position);
+    }
+
+    @Override
+    public boolean hasBounds() {
+        return bounds != null;
+    }
+
+    @Override
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public BlockVector3 getMinimumPoint() {
+        return location.add(getBounds().min);
+    }
+
+    @Override
+    public BlockVector3 getMaximumPoint() {
+        return location.add(getBounds().max);
     }
 
     @Override
@@ -43,9 +201,13 @@ public class SchematicRegion extends AbstractCataMineRegion {
         return RegionType.SCHEMATIC;
     }
 
+    /**
+     * Gets the number of non-air blocks of the schematic, as air is not
+     * pasted and never counts towards the blocks of this region.
+     */
     @Override
     public long getVolume() {
-        return clipboard.getVolume();
+        return getBounds().blockCount;
     }
 
     @Override
@@ -54,6 +216,14 @@ public class SchematicRegion extends AbstractCataMineRegion {
         section.set("schematic-name", schematicName);
         section.set("world", world.getName());
         section.set("location", location.toParserString());
+
+        Bounds current = bounds;
+        if (current != null) {
+            ConfigurationSection boundsSection = section.createSection("bounds");
+            boundsSection.set("min", current.min.toParserString());
+            boundsSection.set("max", current.max.toParserString());
+            boundsSection.set("blocks", current.blockCount);
+        }
         serializeCompositions(section.createSection("compositions"));
     }
 
@@ -73,6 +243,8 @@ public class SchematicRegion extends AbstractCataMineRegion {
 
         World worldEditWorld = BukkitAdapter.adapt(bukkitWorld);
 
+        if (!SchematicCache.exists(schematicName)) throw new DeserializationException("Schematic " + schematicName + " not found");
+
         BlockVector3 location;
         try {
             location = VectorParser.asBlockVector3(section.getString("location"));
@@ -80,7 +252,36 @@ public class SchematicRegion extends AbstractCataMineRegion {
             throw new DeserializationException("Invalid location", exception);
         }
 
-        return new SchematicRegion(name, schematicName, worldEditWorld, location);
+        SchematicRegion schematicRegion = new SchematicRegion(name, schematicName, worldEditWorld, location,
+                deserializeBounds(section.getConfigurationSection("bounds")));
+        schematicRegion.deserializeProperties(section);
+
+        return schematicRegion;
+    }
+
+    /**
+     * Reads the bounds stored with the region, so it can be indexed
+     * without loading its schematic. They are corrected once the
+     * schematic is loaded.
+     *
+     * @param section the bounds section, may be null
+     * @return the stored bounds, null if none or invalid
+     */
+    @Nullable
+    private static Bounds deserializeBounds(@Nullable ConfigurationSection section) {
+        if (section == null || !section.isString("min") || !section.isString("max")) return null;
+
+        long blockCount = section.getLong("blocks", -1);
+        if (blockCount < 0) return null;
+
+        try {
+            return new Bounds(
+                    VectorParser.asBlockVector3(section.getString("min")),
+                    VectorParser.asBlockVector3(section.getString("max")),
+                    blockCount);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
     }
 
 
@@ -89,7 +290,14 @@ public class SchematicRegion extends AbstractCataMineRegion {
         return "SchematicRegion{" +
                 "schemName='" + schematicName + '\'' +
                 ", location=" + location +
-                ", clipboard=" + clipboard +
+                ", bounds=" + bounds +
                 "} " + super.toString();
     }
+
+    /**
+     * Bounds of the schematic relative to the paste location and the
+     * number of blocks it places.
+     */
+    private record Bounds(BlockVector3 min, BlockVector3 max, long blockCount) {
+    }
 }
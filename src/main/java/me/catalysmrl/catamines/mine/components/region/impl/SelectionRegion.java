@@ -2,23 +2,39 @@ package me.catalysmrl.catamines.mine.components.region.impl;
 
 import com.sk89q.worldedit.IncompleteRegionException;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.function.mask.RegionMask;
+import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.*;
 import com.sk89q.worldedit.world.World;
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.api.mine.ResetSeed;
 import me.catalysmrl.catamines.api.serialization.DeserializationException;
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.composition.CompiledComposition;
 import me.catalysmrl.catamines.mine.components.region.AbstractCataMineRegion;
+import me.catalysmrl.catamines.mine.components.region.RegionFill;
+import me.catalysmrl.catamines.mine.components.region.layout.BlockLayout;
+import me.catalysmrl.catamines.mine.components.region.layout.LayoutGenerator;
+import me.catalysmrl.catamines.mine.components.region.membership.RegionMembership;
 import me.catalysmrl.catamines.utils.worldedit.VectorParser;
-import me.catalysmrl.catamines.utils.worldedit.WorldEditUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Optional;
 
 public class SelectionRegion extends AbstractCataMineRegion {
 
     private SelectionType selectionType;
-    private Region region;
+    private volatile Region region;
+    private volatile BlockLayout preparedLayout;
+    // bumped whenever the prepared layout is discarded, layouts generated before are dropped
+    private long layoutGeneration;
+    private volatile RegionMembership membership;
 
     /**
      * Creates a CataMineRegion wrapping a WorldEdit Region.
@@ -37,17 +53,115 @@ public class SelectionRegion extends AbstractCataMineRegion {
         super(name);
         this.selectionType = selectionType;
         this.region = region;
+        compileMembership();
     }
 
     @Override
     public void fill() {
-        getCompositionManager().getUpcoming().ifPresent(composition -> WorldEditUtils.pasteRegion(region, composition.getRandomPattern()));
-        getCompositionManager().next();
+        prepareFill().ifPresent(fill -> applyFill(fill, region));
+    }
+
+    @Override
+    public Optional<RegionFill> prepareFill(@Nullable ResetSeed seed) {
+        Optional<CataMineComposition> composition;
+        if (seed == null) {
+            composition = getCompositionManager().getUpcoming();
+            getCompositionManager().next();
+        } else {
+            composition = getCompositionManager().choose(seed.compositionRandom());
+        }
+
+        Optional<RegionFill> fill = composition.flatMap(upcoming -> {
+            // the snapshot stays the same for the whole fill, however the composition is edited meanwhile
+            CompiledComposition compiled = upcoming.getCompiled();
+            if (!compiled.isFillable()) return Optional.empty();
+
+            return Optional.of(new RegionFill(resolvePattern(compiled, seed),
+                    resolveMask(),
+                    drainChanges(upcoming, compiled.getVersion()).orElse(null),
+                    upcoming));
+        });
+        discardLayout();
+        return fill;
+    }
+
+    /**
+     * Returns the mask restricting a fill to the shape of the region. The
+     * compiled membership is used once available.
+     */
+    private Mask resolveMask() {
+        if (region instanceof CuboidRegion) return null;
+
+        RegionMembership compiled = membership;
+        return compiled != null ? compiled.asMask() : new RegionMask(region);
+    }
+
+    /**
+     * Compiles the membership masks of non-cuboid regions in the background.
+     * Until they are compiled, positions are tested against the region itself.
+     */
+    private void compileMembership() {
+        membership = null;
+
+        Region compiledRegion = region;
+        CataMines plugin = CataMines.getInstance();
+        if (compiledRegion instanceof CuboidRegion || plugin == null) return;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            RegionMembership compiled = RegionMembership.compile(compiledRegion);
+            if (region == compiledRegion) membership = compiled;
+        });
+    }
+
+    /**
+     * Returns the pre-generated layout if it was generated from the snapshot
+     * and for this region in its current state, otherwise the pattern of the
+     * snapshot. Seeded fills always use the pattern seeded for the reset,
+     * since pre-generated layouts are random.
+     */
+    private Pattern resolvePattern(CompiledComposition compiled, @Nullable ResetSeed seed) {
+        if (seed != null) return compiled.getPattern().withSeed(seed.blockSeed());
+
+        BlockLayout layout = preparedLayout;
+        if (layout != null && layout.matches(compiled, region.getMinimumPoint(), region.getMaximumPoint())) {
+            return layout;
+        }
+
+        return compiled.getPattern();
+    }
+
+    @Override
+    public void onFillComplete() {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        if (!LayoutGenerator.isEnabled(BlockLayout.getVolume(min, max))) return;
+
+        long generation = discardLayout();
+        getCompositionManager().getUpcoming().ifPresent(composition ->
+                LayoutGenerator.generateAsync(composition, min, max, layout -> publishLayout(generation, layout)));
+    }
+
+    /**
+     * Discards the prepared layout and any layout still being generated.
+     *
+     * @return the generation of layouts generated from now on
+     */
+    private synchronized long discardLayout() {
+        preparedLayout = null;
+        return ++layoutGeneration;
+    }
+
+    private synchronized void publishLayout(long generation, BlockLayout layout) {
+        if (generation == layoutGeneration) preparedLayout = layout;
     }
 
     public void defineRegion(RegionSelector selector) throws IncompleteRegionException {
         this.selectionType = SelectionType.getType(selector.getTypeName());
         this.region = selector.getRegion().clone();
+        discardLayout();
+        invalidateChanges();
+        compileMembership();
+        reindex();
     }
 
     @Override
@@ -55,6 +169,34 @@ public class SelectionRegion extends AbstractCataMineRegion {
         return RegionType.SELECTION;
     }
 
+    @Override
+    public boolean contains(BlockVector3 position) {
+        RegionMembership compiled = membership;
+        if (compiled != null) return compiled.contains(position);
+
+        return region.contains(position);
+    }
+
+    @Override
+    public World getWorld() {
+        return region.getWorld();
+    }
+
+    @Override
+    public BlockVector3 getMinimumPoint() {
+        return region.getMinimumPoint();
+    }
+
+    @Override
+    public BlockVector3 getMaximumPoint() {
+        return region.getMaximumPoint();
+    }
+
+    /**
+     * Gets the volume WorldEdit reports for the region. It does not change
+     * once the membership is compiled, so block counters created before
+     * and after compiling agree.
+     */
     @Override
     public long getVolume() {
         return region.getVolume();
@@ -109,8 +251,6 @@ public class SelectionRegion extends AbstractCataMineRegion {
         String name = section.getString("name");
         if (name == null) throw new DeserializationException("No name specified");
 
-        double chance = section.getDouble("chance", 0d);
-
         String worldName = section.getString("world");
         if (worldName == null) throw new DeserializationException("No world specified in region " + name);
 
@@ -161,7 +301,7 @@ public class SelectionRegion extends AbstractCataMineRegion {
         }
 
         SelectionRegion selectionRegion = new SelectionRegion(name, selectionType, region);
-        selectionRegion.setChance(chance);
+        selectionRegion.deserializeProperties(section);
 
         ConfigurationSection compositionsSection = section.getConfigurationSection("compositions");
         if (compositionsSection != null) {
@@ -0,0 +1,150 @@
+package me.catalysmrl.catamines.mine.components.region.layout;
+
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.composition.CompiledComposition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pre-generated block layout of a region. Blocks are stored as palette
+ * indexes in one array of 4096 entries per chunk section, using a byte
+ * per block if the palette has at most 256 entries and a short otherwise.
+ * <p>
+ * Applying the layout is a plain array lookup, so no random numbers or
+ * pattern evaluation is needed when the region is reset.
+ *
+ * @see LayoutGenerator
+ */
+public class BlockLayout implements Pattern {
+
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+
+    private final CataMineComposition composition;
+    private final CompiledComposition compiled;
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int minSectionY;
+    private final int chunksX;
+    private final int sectionsY;
+
+    private final BaseBlock[] palette;
+    private final Map<BaseBlock, Integer> paletteIndex = new HashMap<>();
+    private final boolean wide;
+    private final byte[][] byteSections;
+    private final short[][] shortSections;
+
+    BlockLayout(CataMineComposition composition, CompiledComposition compiled, BlockVector3 min, BlockVector3 max) {
+        this.composition = composition;
+        this.compiled = compiled;
+        this.min = min;
+        this.max = max;
+
+        minChunkX = min.getBlockX() >> SECTION_SHIFT;
+        minChunkZ = min.getBlockZ() >> SECTION_SHIFT;
+        minSectionY = min.getBlockY() >> SECTION_SHIFT;
+        chunksX = (max.getBlockX() >> SECTION_SHIFT) - minChunkX + 1;
+        int chunksZ = (max.getBlockZ() >> SECTION_SHIFT) - minChunkZ + 1;
+        sectionsY = (max.getBlockY() >> SECTION_SHIFT) - minSectionY + 1;
+        int sectionCount = chunksX * chunksZ * sectionsY;
+
+        this.palette = compiled.getPalette().toArray(new BaseBlock[0]);
+        for (int i = 0; i < this.palette.length; i++) {
+            paletteIndex.putIfAbsent(this.palette[i], i);
+        }
+
+        wide = this.palette.length > 256;
+        byteSections = wide ? null : new byte[sectionCount][];
+        shortSections = wide ? new short[sectionCount][] : null;
+    }
+
+    /**
+     * Gets the volume of the bounding box of a layout spanning the given
+     * points. Useful to decide if a layout is worth generating at all.
+     *
+     * @param min the minimum point
+     * @param max the maximum point
+     * @return the volume in blocks
+     */
+    public static long getVolume(BlockVector3 min, BlockVector3 max) {
+        return (long) (max.getBlockX() - min.getBlockX() + 1)
+                * (max.getBlockY() - min.getBlockY() + 1)
+                * (max.getBlockZ() - min.getBlockZ() + 1);
+    }
+
+    void set(BlockVector3 position, BaseBlock block) {
+        Integer index = paletteIndex.get(block);
+        set(position.getBlockX(), position.getBlockY(), position.getBlockZ(), index == null ? 0 : index);
+    }
+
+    void set(int x, int y, int z, int paletteIndex) {
+        int section = sectionIndex(x, y, z);
+        int local = localIndex(x, y, z);
+
+        if (wide) {
+            short[] blocks = shortSections[section];
+            if (blocks == null) blocks = shortSections[section] = new short[SECTION_VOLUME];
+            blocks[local] = (short) paletteIndex;
+        } else {
+            byte[] blocks = byteSections[section];
+            if (blocks == null) blocks = byteSections[section] = new byte[SECTION_VOLUME];
+            blocks[local] = (byte) paletteIndex;
+        }
+    }
+
+    @Override
+    public BaseBlock applyBlock(BlockVector3 position) {
+        int x = position.getBlockX();
+        int y = position.getBlockY();
+        int z = position.getBlockZ();
+        int section = sectionIndex(x, y, z);
+        int local = localIndex(x, y, z);
+
+        if (wide) {
+            short[] blocks = shortSections[section];
+            return palette[blocks == null ? 0 : blocks[local] & 0xFFFF];
+        }
+
+        byte[] blocks = byteSections[section];
+        return palette[blocks == null ? 0 : blocks[local] & 0xFF];
+    }
+
+    private int sectionIndex(int x, int y, int z) {
+        int chunkIndex = ((z >> SECTION_SHIFT) - minChunkZ) * chunksX + ((x >> SECTION_SHIFT) - minChunkX);
+        return chunkIndex * sectionsY + ((y >> SECTION_SHIFT) - minSectionY);
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    /**
+     * Returns true if this layout was generated from the given snapshot of
+     * a composition and for a region with the given bounds.
+     *
+     * @param compiled the snapshot of the composition to be filled
+     * @param min      the minimum point of the region
+     * @param max      the maximum point of the region
+     * @return true if the layout can be used for the fill
+     */
+    public boolean matches(CompiledComposition compiled, BlockVector3 min, BlockVector3 max) {
+        return this.compiled == compiled
+                && this.min.equals(min)
+                && this.max.equals(max);
+    }
+
+    public CataMineComposition getComposition() {
+        return composition;
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+}
@@ -0,0 +1,82 @@
+package me.catalysmrl.catamines.mine.components.region.layout;
+
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.mine.components.composition.CataMineComposition;
+import me.catalysmrl.catamines.mine.components.composition.CompiledComposition;
+import org.bukkit.Bukkit;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Generates {@link BlockLayout}s of upcoming resets off the main thread.
+ */
+public final class LayoutGenerator {
+
+    private static final long DEFAULT_MAX_VOLUME = 4_000_000L;
+
+    private LayoutGenerator() {
+    }
+
+    /**
+     * Returns true if layouts should be generated for a region of the given
+     * volume, as configured in config.yml.
+     *
+     * @param volume the volume of the region
+     * @return true if a layout should be generated
+     */
+    public static boolean isEnabled(long volume) {
+        CataMines plugin = CataMines.getInstance();
+        if (plugin == null) return false;
+
+        return plugin.getConfig().getBoolean("block-applicator.pregenerate-layouts", true)
+                && volume <= plugin.getConfig().getLong("block-applicator.max-layout-volume", DEFAULT_MAX_VOLUME);
+    }
+
+    /**
+     * Generates the layout of a composition asynchronously and passes
+     * it to the callback once done. The callback is called from the
+     * generating thread.
+     *
+     * @param composition the composition to generate the layout of
+     * @param min         the minimum point of the region
+     * @param max         the maximum point of the region
+     * @param callback    receives the generated layout
+     */
+    public static void generateAsync(CataMineComposition composition, BlockVector3 min, BlockVector3 max, Consumer<BlockLayout> callback) {
+        CataMines plugin = CataMines.getInstance();
+        if (plugin == null) return;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> generate(composition, min, max).ifPresent(callback));
+    }
+
+    /**
+     * Generates the layout of the current snapshot of a composition for
+     * the box spanned by the given points.
+     *
+     * @param composition the composition to generate the layout of
+     * @param min         the minimum point of the region
+     * @param max         the maximum point of the region
+     * @return the generated layout, empty if the composition has no blocks
+     */
+    public static Optional<BlockLayout> generate(CataMineComposition composition, BlockVector3 min, BlockVector3 max) {
+        CompiledComposition compiled = composition.getCompiled();
+        if (!compiled.isFillable()) return Optional.empty();
+
+        Pattern pattern = compiled.getPattern();
+        BlockLayout layout = new BlockLayout(composition, compiled, min, max);
+
+        for (int y = min.getBlockY(); y <= max.getBlockY(); y++) {
+            for (int z = min.getBlockZ(); z <= max.getBlockZ(); z++) {
+                for (int x = min.getBlockX(); x <= max.getBlockX(); x++) {
+                    BlockVector3 position = BlockVector3.at(x, y, z);
+                    layout.set(position, pattern.applyBlock(position));
+                }
+            }
+        }
+
+        return Optional.of(layout);
+    }
+}
@@ -0,0 +1,170 @@
+package me.catalysmrl.catamines.mine.components.region.membership;
+
+import com.sk89q.worldedit.function.mask.AbstractMask;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Precomputed membership of the positions of a region. The bounding box
+ * is split into chunk sections, each storing one bit per block in a
+ * {@code long[64]}. Sections outside of the region are not stored at all
+ * and sections completely inside of it share one array, so only sections
+ * on the border of the region take memory.
+ * <p>
+ * Testing a position is a bounds check and a bit lookup, independent of
+ * the shape of the region. Instances are immutable.
+ */
+public final class RegionMembership {
+
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+    private static final int WORDS = SECTION_VOLUME / Long.SIZE;
+    private static final long[] FULL = createFull();
+
+    private final int minX, minY, minZ;
+    private final int maxX, maxY, maxZ;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int minSectionY;
+    private final int chunksX;
+    private final int sectionsY;
+    private final long[][] sections;
+
+    private RegionMembership(BlockVector3 min, BlockVector3 max, Predicate<BlockVector3> members) {
+        this.minX = min.getBlockX();
+        this.minY = min.getBlockY();
+        this.minZ = min.getBlockZ();
+        this.maxX = max.getBlockX();
+        this.maxY = max.getBlockY();
+        this.maxZ = max.getBlockZ();
+
+        minChunkX = minX >> SECTION_SHIFT;
+        minChunkZ = minZ >> SECTION_SHIFT;
+        minSectionY = minY >> SECTION_SHIFT;
+        chunksX = (maxX >> SECTION_SHIFT) - minChunkX + 1;
+        int chunksZ = (maxZ >> SECTION_SHIFT) - minChunkZ + 1;
+        sectionsY = (maxY >> SECTION_SHIFT) - minSectionY + 1;
+        sections = new long[chunksX * chunksZ * sectionsY][];
+
+        for (int chunkZ = minChunkZ; chunkZ < minChunkZ + chunksZ; chunkZ++) {
+            for (int chunkX = minChunkX; chunkX < minChunkX + chunksX; chunkX++) {
+                for (int sectionY = minSectionY; sectionY < minSectionY + sectionsY; sectionY++) {
+                    compileSection(chunkX, sectionY, chunkZ, members);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles the membership of a region. This tests every position of
+     * the bounding box once and may take a while for large regions.
+     *
+     * @param region the region to compile
+     * @return the compiled membership
+     */
+    public static RegionMembership compile(Region region) {
+        return new RegionMembership(region.getMinimumPoint(), region.getMaximumPoint(), region::contains);
+    }
+
+    /**
+     * Compiles the positions of a box matched by a mask, e.g. the blocks a
+     * schematic places. The membership keeps no reference to the mask.
+     *
+     * @param min  the minimum point of the box
+     * @param max  the maximum point of the box
+     * @param mask the mask matching the positions to include
+     * @return the compiled membership
+     */
+    public static RegionMembership compile(BlockVector3 min, BlockVector3 max, Mask mask) {
+        return new RegionMembership(min, max, mask::test);
+    }
+
+    private void compileSection(int chunkX, int sectionY, int chunkZ, Predicate<BlockVector3> members) {
+        int baseX = chunkX << SECTION_SHIFT;
+        int baseY = sectionY << SECTION_SHIFT;
+        int baseZ = chunkZ << SECTION_SHIFT;
+
+        long[] bits = new long[WORDS];
+        int count = 0;
+
+        for (int y = Math.max(minY, baseY); y <= Math.min(maxY, baseY + 15); y++) {
+            for (int z = Math.max(minZ, baseZ); z <= Math.min(maxZ, baseZ + 15); z++) {
+                for (int x = Math.max(minX, baseX); x <= Math.min(maxX, baseX + 15); x++) {
+                    if (!members.test(BlockVector3.at(x, y, z))) continue;
+
+                    int local = localIndex(x, y, z);
+                    bits[local >>> 6] |= 1L << local;
+                    count++;
+                }
+            }
+        }
+
+        int index = sectionIndex(chunkX, sectionY, chunkZ);
+        if (count == SECTION_VOLUME) {
+            sections[index] = FULL;
+        } else if (count > 0) {
+            sections[index] = bits;
+        }
+    }
+
+    /**
+     * Returns true if the region contains the position.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     * @return true if the position is part of the region
+     */
+    public boolean contains(int x, int y, int z) {
+        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) return false;
+
+        long[] bits = sections[sectionIndex(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT)];
+        if (bits == null) return false;
+
+        int local = localIndex(x, y, z);
+        return (bits[local >>> 6] & 1L << local) != 0;
+    }
+
+    public boolean contains(BlockVector3 position) {
+        return contains(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+    }
+
+    /**
+     * Gets a WorldEdit mask matching the positions of the region.
+     *
+     * @return the mask
+     */
+    public Mask asMask() {
+        return new MembershipMask();
+    }
+
+    private int sectionIndex(int chunkX, int sectionY, int chunkZ) {
+        return ((chunkZ - minChunkZ) * chunksX + (chunkX - minChunkX)) * sectionsY + (sectionY - minSectionY);
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    private static long[] createFull() {
+        long[] full = new long[WORDS];
+        Arrays.fill(full, -1L);
+        return full;
+    }
+
+    private final class MembershipMask extends AbstractMask {
+
+        @Override
+        public boolean test(BlockVector3 vector) {
+            return contains(vector.getBlockX(), vector.getBlockY(), vector.getBlockZ());
+        }
+
+        public Mask copy() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package me.catalysmrl.catamines.mine.components.region.tracking;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the blocks mined in a region since its last fill. Increments
+ * are striped over several cells, so concurrent break handlers do not
+ * contend on a single value. The total is set from the volume of the
+ * region after each fill, which also clears the mined count.
+ */
+public final class BlockCounter {
+
+    private final LongAdder mined = new LongAdder();
+    private final AtomicBoolean resetPending = new AtomicBoolean();
+    private volatile long total;
+
+    public BlockCounter(long total) {
+        this.total = total;
+    }
+
+    public void recordMined() {
+        mined.increment();
+    }
+
+    /**
+     * Records many blocks mined at once, e.g. by an explosion.
+     *
+     * @param count the number of mined blocks
+     */
+    public void recordMined(long count) {
+        mined.add(count);
+    }
+
+    /**
+     * Records a block placed in the region, e.g. by a player filling a
+     * hole again.
+     */
+    public void recordPlaced() {
+        mined.decrement();
+    }
+
+    /**
+     * Resets the counter after the region was filled. Clears a pending
+     * reset, so the threshold may trigger again.
+     *
+     * @param total the number of blocks in the filled region
+     */
+    public void reset(long total) {
+        this.total = total;
+        mined.reset();
+        resetPending.set(false);
+    }
+
+    /**
+     * Restores the counter to a state recorded earlier, e.g. before the
+     * server stopped.
+     *
+     * @param total the number of blocks in the region
+     * @param mined the number of blocks mined since the last fill
+     */
+    public void restore(long total, long mined) {
+        this.total = total;
+        this.mined.reset();
+        this.mined.add(mined);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMined() {
+        return Math.max(0, Math.min(total, mined.sum()));
+    }
+
+    public long getRemaining() {
+        return total - getMined();
+    }
+
+    /**
+     * Gets the percentage of blocks left in the region.
+     *
+     * @return the remaining percentage between 0 and 100
+     */
+    public double getRemainingPercentage() {
+        long current = total;
+        return current == 0 ? 100d : getRemaining() * 100d / current;
+    }
+
+    /**
+     * Returns true if the percentage of blocks left dropped to the
+     * threshold. Does not allocate, so it is cheap enough to check on
+     * every block break.
+     *
+     * @param percentage the reset percentage between 0 and 100
+     * @return true if at most the given percentage of blocks is left
+     */
+    public boolean hasReached(double percentage) {
+        long current = total;
+        return current > 0 && getRemaining() * 100d <= percentage * current;
+    }
+
+    /**
+     * Marks a reset of the region as pending. Only the first caller
+     * succeeds until the pending reset completes or is cleared.
+     *
+     * @return true if no reset was pending before
+     */
+    public boolean tryBeginReset() {
+        return resetPending.compareAndSet(false, true);
+    }
+
+    /**
+     * Clears a pending reset that did not fill the region, so the
+     * threshold may trigger again.
+     */
+    public void clearPendingReset() {
+        resetPending.set(false);
+    }
+
+    public boolean isResetPending() {
+        return resetPending.get();
+    }
+}
@@ -0,0 +1,65 @@
+package me.catalysmrl.catamines.mine.components.region.tracking;
+
+import com.sk89q.worldedit.function.mask.AbstractMask;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+
+import java.util.BitSet;
+
+/**
+ * Immutable mask of the positions a {@link ChangeTracker} recorded
+ * between two fills.
+ */
+public class ChangeMask extends AbstractMask {
+
+    private final ChangeTracker tracker;
+    private final BitSet changes;
+
+    ChangeMask(ChangeTracker tracker, BitSet changes) {
+        this.tracker = tracker;
+        this.changes = changes;
+    }
+
+    @Override
+    public boolean test(BlockVector3 vector) {
+        int x = vector.getBlockX();
+        int y = vector.getBlockY();
+        int z = vector.getBlockZ();
+        return tracker.contains(x, y, z) && changes.get(tracker.index(x, y, z));
+    }
+
+    /**
+     * Returns true if any changed position lies within the bounding
+     * box of the region. Checks one row of blocks at a time.
+     *
+     * @param region the region to check
+     * @return true if the region contains a changed position
+     */
+    public boolean intersects(Region region) {
+        if (changes.isEmpty()) return false;
+
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+
+        for (int y = min.getBlockY(); y <= max.getBlockY(); y++) {
+            for (int z = min.getBlockZ(); z <= max.getBlockZ(); z++) {
+                if (!tracker.contains(min.getBlockX(), y, z) || !tracker.contains(max.getBlockX(), y, z)) continue;
+
+                int rowStart = tracker.index(min.getBlockX(), y, z);
+                int next = changes.nextSetBit(rowStart);
+                if (next >= 0 && next <= rowStart + max.getBlockX() - min.getBlockX()) return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int getChangedCount() {
+        return changes.cardinality();
+    }
+
+    public Mask copy() {
+        return this;
+    }
+}
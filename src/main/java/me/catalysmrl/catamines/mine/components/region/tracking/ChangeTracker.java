@@ -0,0 +1,82 @@
+package me.catalysmrl.catamines.mine.components.region.tracking;
+
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.util.BitSet;
+
+/**
+ * Tracks the positions of a region that changed since its last fill.
+ * Positions are stored in a bitset indexed by their local coordinates
+ * inside the bounding box of the region, so a set bit costs one bit of
+ * memory.
+ * <p>
+ * The tracker only knows which positions changed after it observed a
+ * fill. Until then {@link #hasBaseline()} returns false and the region
+ * has to be filled completely.
+ */
+public class ChangeTracker {
+
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+    private final int sizeX;
+    private final int sizeZ;
+
+    private BitSet changes = new BitSet();
+    private boolean baseline;
+
+    public ChangeTracker(BlockVector3 min, BlockVector3 max) {
+        this.min = min;
+        this.max = max;
+        this.sizeX = max.getBlockX() - min.getBlockX() + 1;
+        this.sizeZ = max.getBlockZ() - min.getBlockZ() + 1;
+    }
+
+    /**
+     * Marks a position as changed. Positions outside the bounds
+     * of the tracker are ignored.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    public synchronized void mark(int x, int y, int z) {
+        if (!contains(x, y, z)) return;
+        changes.set(index(x, y, z));
+    }
+
+    /**
+     * Returns the positions changed since the last call and starts tracking
+     * anew. The caller is expected to fill the region afterwards, which makes
+     * the fill the new baseline of this tracker.
+     *
+     * @return the mask of changed positions
+     */
+    public synchronized ChangeMask drain() {
+        ChangeMask mask = new ChangeMask(this, changes);
+        changes = new BitSet();
+        baseline = true;
+        return mask;
+    }
+
+    public synchronized boolean hasBaseline() {
+        return baseline;
+    }
+
+    public synchronized int getChangedCount() {
+        return changes.cardinality();
+    }
+
+    public boolean matches(BlockVector3 min, BlockVector3 max) {
+        return this.min.equals(min) && this.max.equals(max);
+    }
+
+    boolean contains(int x, int y, int z) {
+        return x >= min.getBlockX() && x <= max.getBlockX()
+                && y >= min.getBlockY() && y <= max.getBlockY()
+                && z >= min.getBlockZ() && z <= max.getBlockZ();
+    }
+
+    int index(int x, int y, int z) {
+        return ((y - min.getBlockY()) * sizeZ + (z - min.getBlockZ())) * sizeX + (x - min.getBlockX());
+    }
+}
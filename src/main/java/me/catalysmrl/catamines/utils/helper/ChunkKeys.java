@@ -0,0 +1,19 @@
+package me.catalysmrl.catamines.utils.helper;
+
+/**
+ * Utility class packing chunk coordinates into a single long.
+ */
+public final class ChunkKeys {
+
+    private ChunkKeys() {
+        //no instance
+    }
+
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static long packBlock(int blockX, int blockZ) {
+        return pack(blockX >> 4, blockZ >> 4);
+    }
+}
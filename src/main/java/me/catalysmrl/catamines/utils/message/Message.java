@@ -74,6 +74,10 @@ public enum Message {
     // ResetMode command
     RESETMODE_INVALID(""),
 
+    // Seed command
+    SEED_INVALID("catamines.command.seed.invalid"),
+    SEED_SUCCESS("catamines.command.seed.success"),
+
     /*
      * Mine region commands
      */
@@ -85,7 +89,16 @@ public enum Message {
 
     REGION_NOT_EXISTS("catamines.command.region.region-not-exists"),
     REGION_DELETE_SUCCESS("catamines.command.region.delete.success"),
-    REGION_DELETE_DESCRIPTION("catamines.command.region.create.description");
+    REGION_DELETE_DESCRIPTION("catamines.command.region.create.description"),
+
+    REGION_FILLMODE_INVALID("catamines.command.region.fillmode.invalid"),
+    REGION_FILLMODE_SUCCESS("catamines.command.region.fillmode.success"),
+    REGION_FILLMODE_DESCRIPTION("catamines.command.region.fillmode.description"),
+
+    REGION_EDITSESSION_INVALID("catamines.command.region.editsession.invalid"),
+    REGION_EDITSESSION_SUCCESS("catamines.command.region.editsession.success"),
+    REGION_EDITSESSION_DEFAULT("catamines.command.region.editsession.default"),
+    REGION_EDITSESSION_DESCRIPTION("catamines.command.region.editsession.description");
 
     private final String key;
 
@@ -0,0 +1,104 @@
+package me.catalysmrl.catamines.utils.random;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples indices with given weights in constant time using Vose's alias
+ * method. Building the table takes linear time, sampling takes one random
+ * long and two array reads, independent of the number of weights.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class AliasTable {
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    private AliasTable(double[] probabilities, int[] aliases) {
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Builds an alias table of the weights. Weights do not need to sum
+     * up to any particular value.
+     *
+     * @param weights the non-negative weights, at least one of them positive
+     * @return the alias table
+     * @throws IllegalArgumentException if a weight is negative or all weights are zero
+     */
+    public static AliasTable of(double[] weights) {
+        int size = weights.length;
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) throw new IllegalArgumentException("Invalid weight " + weight);
+            sum += weight;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("No positive weight");
+
+        double[] probabilities = new double[size];
+        int[] aliases = new int[size];
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / sum;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // remaining entries are 1 up to rounding errors
+        while (largeCount > 0) probabilities[large[--largeCount]] = 1;
+        while (smallCount > 0) probabilities[small[--smallCount]] = 1;
+
+        return new AliasTable(probabilities, aliases);
+    }
+
+    /**
+     * Samples an index with a probability proportional to its weight.
+     * Uses a single random long: the high half picks the column, the low
+     * half decides between the column and its alias.
+     *
+     * @param random the source of randomness
+     * @return the sampled index
+     */
+    public int sample(RandomGenerator random) {
+        return sample(random.nextLong());
+    }
+
+    /**
+     * Samples an index from 64 random bits.
+     *
+     * @param bits uniformly distributed random bits
+     * @return the sampled index
+     */
+    public int sample(long bits) {
+        int column = (int) (((bits >>> 32) * probabilities.length) >>> 32);
+        double threshold = (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+        return threshold < probabilities[column] ? column : aliases[column];
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+}
@@ -0,0 +1,69 @@
+package me.catalysmrl.catamines.utils.random;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Counter-based random generator. The n-th number of a generator is the
+ * SplitMix64 hash of its key and n, so it does not depend on any shared
+ * state and can be computed for any n directly. The static hash methods
+ * derive numbers from a seed and coordinates the same way, which allows
+ * generating the blocks of a region in any order and on any thread with
+ * identical results.
+ * <p>
+ * Instances are not thread safe, the static methods are.
+ */
+public final class CounterRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long key;
+    private long counter;
+
+    public CounterRandom(long key) {
+        this.key = key;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(key + ++counter * GOLDEN_GAMMA);
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading every input bit over all
+     * output bits.
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Derives a number from a seed and a counter.
+     *
+     * @param seed    the seed
+     * @param counter the counter
+     * @return the derived number
+     */
+    public static long hash(long seed, long counter) {
+        return mix(seed + mix(counter + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Derives a number from a seed and a block position.
+     *
+     * @param seed the seed
+     * @param x    the block x coordinate
+     * @param y    the block y coordinate
+     * @param z    the block z coordinate
+     * @return the derived number
+     */
+    public static long hash(long seed, int x, int y, int z) {
+        long h = mix(seed + x * GOLDEN_GAMMA);
+        h = mix(h + y * GOLDEN_GAMMA);
+        return mix(h + z * GOLDEN_GAMMA);
+    }
+}
@@ -0,0 +1,132 @@
+package me.catalysmrl.catamines.utils.random;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable weighted choice between items. The cumulative weights are
+ * computed once, selecting an item is a binary search over them. Items
+ * with a weight of zero are never selected, unless every weight is zero,
+ * in which case all items are equally likely.
+ * <p>
+ * Instances may be shared between threads.
+ *
+ * @param <T> the type of the items
+ */
+public final class WeightedSelection<T> {
+
+    private static final WeightedSelection<?> EMPTY = new WeightedSelection<>(List.of(), new double[0], new double[0]);
+
+    private final List<T> items;
+    private final double[] weights;
+    private final double[] cumulative;
+    private final double total;
+
+    private WeightedSelection(List<T> items, double[] weights, double[] cumulative) {
+        this.items = items;
+        this.weights = weights;
+        this.cumulative = cumulative;
+        this.total = cumulative.length == 0 ? 0 : cumulative[cumulative.length - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> WeightedSelection<T> empty() {
+        return (WeightedSelection<T>) EMPTY;
+    }
+
+    /**
+     * Creates a selection of the items, reading their weights once.
+     * Negative weights are treated as zero.
+     *
+     * @param items  the items to choose from
+     * @param weight gets the weight of an item
+     * @param <T>    the type of the items
+     * @return the selection
+     */
+    public static <T> WeightedSelection<T> of(List<? extends T> items, ToDoubleFunction<? super T> weight) {
+        if (items.isEmpty()) return empty();
+
+        double[] weights = new double[items.size()];
+        double[] cumulative = new double[items.size()];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = Math.max(0, weight.applyAsDouble(items.get(i)));
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return new WeightedSelection<>(List.copyOf(items), weights, cumulative);
+    }
+
+    /**
+     * Selects an item with a probability proportional to its weight.
+     *
+     * @param random the source of randomness
+     * @return the selected item, empty if there are no items
+     */
+    public Optional<T> select(RandomGenerator random) {
+        return select(random.nextDouble());
+    }
+
+    /**
+     * Selects the item at a position of the cumulative weights.
+     *
+     * @param fraction a uniformly distributed number in [0, 1)
+     * @return the selected item, empty if there are no items
+     */
+    public Optional<T> select(double fraction) {
+        if (items.isEmpty()) return Optional.empty();
+        if (total <= 0) return Optional.of(items.get(Math.min((int) (fraction * items.size()), items.size() - 1)));
+
+        double target = fraction * total;
+        // first index whose cumulative weight is above the target, which skips zero weights
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > target) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        // rounding may put the target at the total, past trailing zero weights
+        while (weights[low] == 0) low--;
+        return Optional.of(items.get(low));
+    }
+
+    /**
+     * Gets the items of this selection.
+     *
+     * @return the unmodifiable items
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedSelection{" +
+                "items=" + items +
+                ", weights=" + Arrays.toString(weights) +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package me.catalysmrl.catamines.utils.worldedit;
+
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import me.catalysmrl.catamines.utils.random.AliasTable;
+import me.catalysmrl.catamines.utils.random.CounterRandom;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pattern returning weighted random blocks like WorldEdit's
+ * {@link com.sk89q.worldedit.function.pattern.RandomPattern}, but sampling
+ * them from an {@link AliasTable}. Picking a block costs one random long
+ * from the generator of the current thread and two array reads, however
+ * many blocks the pattern has. Instances are immutable and may be applied
+ * from several threads at once.
+ */
+public final class AliasPattern implements Pattern {
+
+    private final BaseBlock[] blocks;
+    private final AliasTable table;
+
+    private AliasPattern(BaseBlock[] blocks, AliasTable table) {
+        this.blocks = blocks;
+        this.table = table;
+    }
+
+    /**
+     * Creates a pattern of the blocks with the given weights.
+     *
+     * @param blocks  the blocks of the pattern
+     * @param weights the weights of the blocks, in the same order
+     * @return the pattern
+     * @throws IllegalArgumentException if the sizes differ or no weight is positive
+     */
+    public static AliasPattern of(List<BaseBlock> blocks, double[] weights) {
+        if (blocks.size() != weights.length) throw new IllegalArgumentException("Every block needs one weight");
+        return new AliasPattern(blocks.toArray(new BaseBlock[0]), AliasTable.of(weights));
+    }
+
+    @Override
+    public BaseBlock applyBlock(BlockVector3 position) {
+        return blocks[table.sample(ThreadLocalRandom.current())];
+    }
+
+    /**
+     * Gets a pattern picking the blocks of this pattern deterministically.
+     * The block at a position only depends on the seed and the position,
+     * so it is the same whichever order or thread positions are applied in.
+     *
+     * @param seed the seed of the blocks
+     * @return the seeded pattern
+     */
+    public Pattern withSeed(long seed) {
+        return new SeededPattern(seed);
+    }
+
+    public int size() {
+        return blocks.length;
+    }
+
+    private final class SeededPattern implements Pattern {
+
+        private final long seed;
+
+        private SeededPattern(long seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public BaseBlock applyBlock(BlockVector3 position) {
+            return blocks[table.sample(CounterRandom.hash(seed, position.getBlockX(), position.getBlockY(), position.getBlockZ()))];
+        }
+    }
+}
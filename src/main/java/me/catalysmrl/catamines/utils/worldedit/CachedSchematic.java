@@ -0,0 +1,28 @@
+package me.catalysmrl.catamines.utils.worldedit;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+
+/**
+ * A schematic loaded by the {@link SchematicCache}.
+ *
+ * @param clipboard  the clipboard of the schematic
+ * @param blockCount the number of non-air blocks, which is the number of
+ *                   blocks a paste ignoring air places
+ */
+public record CachedSchematic(Clipboard clipboard, long blockCount) {
+
+    /**
+     * Wraps a loaded clipboard, counting its non-air blocks.
+     *
+     * @param clipboard the loaded clipboard
+     * @return the cached schematic
+     */
+    public static CachedSchematic of(Clipboard clipboard) {
+        long blockCount = 0;
+        for (BlockVector3 position : clipboard.getRegion()) {
+            if (!clipboard.getBlock(position).getBlockType().getMaterial().isAir()) blockCount++;
+        }
+        return new CachedSchematic(clipboard, blockCount);
+    }
+}
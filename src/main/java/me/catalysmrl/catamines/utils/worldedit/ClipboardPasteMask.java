@@ -0,0 +1,38 @@
+package me.catalysmrl.catamines.utils.worldedit;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.function.mask.AbstractMask;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+
+/**
+ * Mask matching the positions a clipboard pasted at the given location
+ * covers. Air blocks of the clipboard are not matched, same as a paste
+ * ignoring air blocks.
+ *
+ * @see ClipboardPastePattern
+ */
+public class ClipboardPasteMask extends AbstractMask {
+
+    private final Clipboard clipboard;
+    private final Region clipboardRegion;
+    private final BlockVector3 offset;
+
+    public ClipboardPasteMask(Clipboard clipboard, BlockVector3 location) {
+        this.clipboard = clipboard;
+        this.clipboardRegion = clipboard.getRegion();
+        this.offset = clipboard.getOrigin().subtract(location);
+    }
+
+    @Override
+    public boolean test(BlockVector3 vector) {
+        BlockVector3 clipboardPosition = vector.add(offset);
+        return clipboardRegion.contains(clipboardPosition)
+                && !clipboard.getBlock(clipboardPosition).getBlockType().getMaterial().isAir();
+    }
+
+    public Mask copy() {
+        return new ClipboardPasteMask(clipboard, clipboard.getOrigin().subtract(offset));
+    }
+}
@@ -0,0 +1,27 @@
+package me.catalysmrl.catamines.utils.worldedit;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+
+/**
+ * Pattern returning the blocks of a clipboard as if it was pasted
+ * at the given location. Positions are translated relative to the
+ * origin of the clipboard, same as a clipboard paste would.
+ */
+public class ClipboardPastePattern implements Pattern {
+
+    private final Clipboard clipboard;
+    private final BlockVector3 offset;
+
+    public ClipboardPastePattern(Clipboard clipboard, BlockVector3 location) {
+        this.clipboard = clipboard;
+        this.offset = clipboard.getOrigin().subtract(location);
+    }
+
+    @Override
+    public BaseBlock applyBlock(BlockVector3 position) {
+        return clipboard.getFullBlock(position.add(offset));
+    }
+}
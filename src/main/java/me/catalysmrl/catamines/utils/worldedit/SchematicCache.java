@@ -0,0 +1,198 @@
+package me.catalysmrl.catamines.utils.worldedit;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import me.catalysmrl.catamines.CataMines;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of loaded schematics shared by all regions. A schematic is read
+ * on a background thread the first time it is requested and reloaded if
+ * its file was modified since. Once the estimated memory of all cached
+ * clipboards exceeds the configured cap, the least recently used ones
+ * are evicted.
+ * <p>
+ * Loading does not use the Bukkit scheduler, so the main thread may wait
+ * for a schematic without blocking its own load.
+ */
+public final class SchematicCache {
+
+    private static final long ESTIMATED_BYTES_PER_BLOCK = 8;
+    private static final long DEFAULT_MAX_MEMORY_MB = 256;
+    private static final long MODIFICATION_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static final ThreadPoolExecutor loader = createLoader();
+    private static long memoryUsage;
+
+    private SchematicCache() {
+    }
+
+    private static ThreadPoolExecutor createLoader() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "CataMines Schematic Loader #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Gets the clipboard of a schematic. If it is not cached or its file
+     * changed since it was loaded, it is loaded in the background. The
+     * file is checked for modifications at most once every 5 seconds.
+     *
+     * @param schematicName the file name of the schematic in the schematics folder
+     * @return the schematic, completing exceptionally if it could not be loaded
+     */
+    public static CompletableFuture<CachedSchematic> get(String schematicName) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(schematicName);
+            if (entry != null && now - entry.checkedAt < MODIFICATION_CHECK_INTERVAL_NANOS && !entry.future.isCompletedExceptionally()) {
+                return entry.future;
+            }
+        }
+
+        long lastModified = WorldEditUtils.getSchematicFile(schematicName).lastModified();
+
+        synchronized (entries) {
+            Entry entry = entries.get(schematicName);
+            if (entry != null && entry.lastModified == lastModified && !entry.future.isCompletedExceptionally()) {
+                entry.checkedAt = now;
+                return entry.future;
+            }
+
+            if (entry != null) remove(schematicName);
+
+            Entry loading = new Entry(lastModified, now, new CompletableFuture<>());
+            entries.put(schematicName, loading);
+            loader.execute(() -> load(schematicName, loading));
+            return loading.future;
+        }
+    }
+
+    private static void load(String schematicName, Entry entry) {
+        CachedSchematic schematic;
+        try {
+            Clipboard clipboard = WorldEditUtils.loadSchematic(schematicName);
+            if (clipboard == null) {
+                entry.future.completeExceptionally(new IllegalArgumentException("Could not load schematic " + schematicName));
+                return;
+            }
+            schematic = CachedSchematic.of(clipboard);
+        } catch (RuntimeException exception) {
+            entry.future.completeExceptionally(exception);
+            return;
+        }
+
+        synchronized (entries) {
+            if (entries.get(schematicName) == entry) {
+                entry.size = schematic.clipboard().getVolume() * ESTIMATED_BYTES_PER_BLOCK;
+                memoryUsage += entry.size;
+                evict(entry);
+            }
+        }
+
+        entry.future.complete(schematic);
+    }
+
+    /**
+     * Evicts least recently used clipboards until the memory cap is met.
+     * Clipboards still loading and the given one are kept.
+     */
+    private static void evict(Entry keep) {
+        long maxMemory = getMaxMemory();
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (memoryUsage > maxMemory && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry == keep || entry.size == 0) continue;
+
+            memoryUsage -= entry.size;
+            iterator.remove();
+        }
+    }
+
+    private static void remove(String schematicName) {
+        Entry entry = entries.remove(schematicName);
+        if (entry != null) memoryUsage -= entry.size;
+    }
+
+    private static long getMaxMemory() {
+        CataMines plugin = CataMines.getInstance();
+        long megabytes = plugin == null
+                ? DEFAULT_MAX_MEMORY_MB
+                : plugin.getConfig().getLong("schematic-cache.max-memory", DEFAULT_MAX_MEMORY_MB);
+        return megabytes * 1024 * 1024;
+    }
+
+    /**
+     * Removes a schematic from the cache, so it is read again on next use.
+     *
+     * @param schematicName the file name of the schematic
+     */
+    public static void invalidate(String schematicName) {
+        synchronized (entries) {
+            remove(schematicName);
+        }
+    }
+
+    /**
+     * Checks if the file of a schematic exists.
+     *
+     * @param schematicName the file name of the schematic
+     * @return true if the file exists
+     */
+    public static boolean exists(String schematicName) {
+        File file = WorldEditUtils.getSchematicFile(schematicName);
+        return file.isFile();
+    }
+
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+            memoryUsage = 0;
+        }
+    }
+
+    public static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the estimated memory used by all cached clipboards.
+     *
+     * @return the estimated memory in bytes
+     */
+    public static long getMemoryUsage() {
+        synchronized (entries) {
+            return memoryUsage;
+        }
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final CompletableFuture<CachedSchematic> future;
+        private long checkedAt;
+        private long size;
+
+        private Entry(long lastModified, long checkedAt, CompletableFuture<CachedSchematic> future) {
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+            this.future = future;
+        }
+    }
+}
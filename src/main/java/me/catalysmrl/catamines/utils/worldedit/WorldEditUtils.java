@@ -1,10 +1,12 @@
 package me.catalysmrl.catamines.utils.worldedit;
 
 import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.EditSessionBuilder;
 import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
@@ -18,7 +20,10 @@ import com.sk89q.worldedit.regions.RegionSelector;
 import com.sk89q.worldedit.session.ClipboardHolder;
 import com.sk89q.worldedit.world.World;
 import me.catalysmrl.catamines.CataMines;
+import me.catalysmrl.catamines.mine.components.region.EditSessionSettings;
+import me.catalysmrl.catamines.utils.helper.CompatibilityProvider;
 import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -34,15 +39,74 @@ public class WorldEditUtils {
         return WorldEdit.getInstance().getSessionManager().get(BukkitAdapter.adapt(player)).getRegionSelector(BukkitAdapter.adapt(player.getWorld()));
     }
 
+    /**
+     * Creates a new EditSession used for filling mines with the global
+     * default settings. The session has to be closed by the caller.
+     *
+     * @param world the world to edit
+     * @return a new EditSession
+     */
+    public static EditSession newEditSession(World world) {
+        return newEditSession(world, EditSessionSettings.getDefault());
+    }
+
+    /**
+     * Creates a new EditSession used for filling mines.
+     * The session has to be closed by the caller.
+     * <p>
+     * Disabling history only has an effect with FastAsyncWorldEdit,
+     * plain WorldEdit always records the changes of a session.
+     *
+     * @param world    the world to edit
+     * @param settings the history and side effects of the session
+     * @return a new EditSession
+     */
+    public static EditSession newEditSession(World world, EditSessionSettings settings) {
+        return newEditSession(world, null, settings);
+    }
+
+    /**
+     * Creates a new EditSession writing to the given extent instead of the
+     * world, e.g. a clipboard. Only FastAsyncWorldEdit can redirect a
+     * session, so an extent needs it. The session has to be closed by the
+     * caller.
+     *
+     * @param world    the world of the session
+     * @param extent   the extent to edit, null to edit the world
+     * @param settings the history and side effects of the session
+     * @return a new EditSession
+     * @throws IllegalStateException if an extent is given without FastAsyncWorldEdit
+     */
+    public static EditSession newEditSession(World world, @Nullable Extent extent, EditSessionSettings settings) {
+        EditSessionBuilder builder = WorldEdit.getInstance().newEditSessionBuilder()
+                .world(world);
+
+        if (extent != null) {
+            if (!CompatibilityProvider.isFaweEnabled()) {
+                throw new IllegalStateException("Editing an extent other than the world needs FastAsyncWorldEdit");
+            }
+            builder.extent(extent);
+        }
+
+        if (!settings.history() && CompatibilityProvider.isFaweEnabled()) {
+            builder.changeSetNull();
+        }
+
+        EditSession editSession = builder.build();
+        editSession.setReorderMode(EditSession.ReorderMode.FAST);
+        editSession.setSideEffectApplier(settings.toSideEffectSet());
+        return editSession;
+    }
+
     public static void pasteRegion(Region region, Pattern pattern) {
+        pasteRegion(region, pattern, EditSessionSettings.getDefault());
+    }
+
+    public static void pasteRegion(Region region, Pattern pattern, EditSessionSettings settings) {
         Objects.requireNonNull(region);
         Objects.requireNonNull(pattern);
 
-        try (EditSession editSession = WorldEdit.getInstance().newEditSessionBuilder()
-                .world(region.getWorld())
-                .build()) {
-
-            editSession.setReorderMode(EditSession.ReorderMode.FAST);
+        try (EditSession editSession = newEditSession(region.getWorld(), settings)) {
             editSession.setBlocks(region, pattern);
         } catch (MaxChangedBlocksException exception) {
             exception.printStackTrace();
@@ -50,11 +114,15 @@ public class WorldEditUtils {
     }
 
     public static void pasteSchematic(Clipboard clipboard, World world, BlockVector3 location) {
+        pasteSchematic(clipboard, world, location, EditSessionSettings.getDefault());
+    }
+
+    public static void pasteSchematic(Clipboard clipboard, World world, BlockVector3 location, EditSessionSettings settings) {
         Objects.requireNonNull(clipboard);
         Objects.requireNonNull(world);
         Objects.requireNonNull(location);
 
-        try (EditSession editSession = WorldEdit.getInstance().newEditSession(world)) {
+        try (EditSession editSession = newEditSession(world, settings)) {
             Operation operation = new ClipboardHolder(clipboard)
                     .createPaste(editSession)
                     .to(location)
@@ -67,8 +135,19 @@ public class WorldEditUtils {
         }
     }
 
+    public static File getSchematicFile(String schemName) {
+        return new File(CataMines.getInstance().getDataFolder() + "/schematics/" + schemName);
+    }
+
+    /**
+     * Reads a schematic from the schematics folder. This blocks until the
+     * file is read, regions should use the {@link SchematicCache} instead.
+     *
+     * @param schemName the file name of the schematic
+     * @return the read clipboard, null if it could not be read
+     */
     public static Clipboard loadSchematic(String schemName) {
-        File file = new File(CataMines.getInstance().getDataFolder() + "/schematics/" + schemName);
+        File file = getSchematicFile(schemName);
 
         Clipboard clipboard = null;
 
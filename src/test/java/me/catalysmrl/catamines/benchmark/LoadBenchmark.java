@@ -0,0 +1,139 @@
+package me.catalysmrl.catamines.benchmark;
+
+import me.catalysmrl.catamines.managers.MineSnapshot;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Parses the files of a mines folder as YAML and from their
+ * {@link MineSnapshot}s, like the parse phase of loading on startup.
+ * The mines are generated with the layout mines are saved in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoadBenchmark {
+
+    private static final int MINES = 100;
+
+    @Param({"1", "8"})
+    private int regions;
+
+    private Path folder;
+
+    @Setup
+    public void setUp() throws IOException, InvalidConfigurationException {
+        byte[] yaml = createMine(regions).saveToString().getBytes(StandardCharsets.UTF_8);
+
+        YamlConfiguration parsed = new YamlConfiguration();
+        parsed.loadFromString(new String(yaml, StandardCharsets.UTF_8));
+        byte[] snapshot = MineSnapshot.encode(parsed, yaml);
+
+        folder = Files.createTempDirectory("catamines-benchmark");
+        for (int i = 0; i < MINES; i++) {
+            Path file = folder.resolve("mine-" + i + ".yml");
+            Files.write(file, yaml);
+            Files.write(MineSnapshot.getSnapshotFile(file), snapshot);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(folder);
+    }
+
+    @Benchmark
+    public int yaml() throws IOException, InvalidConfigurationException {
+        int keys = 0;
+        for (int i = 0; i < MINES; i++) {
+            YamlConfiguration config = new YamlConfiguration();
+            config.loadFromString(Files.readString(folder.resolve("mine-" + i + ".yml"), StandardCharsets.UTF_8));
+            keys += config.getKeys(true).size();
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public int snapshot() throws IOException {
+        int keys = 0;
+        for (int i = 0; i < MINES; i++) {
+            Path file = folder.resolve("mine-" + i + ".yml");
+            Optional<YamlConfiguration> config = MineSnapshot.read(MineSnapshot.getSnapshotFile(file), Files.readAllBytes(file));
+            if (config.isEmpty()) throw new IOException("Snapshot of " + file.getFileName() + " does not match");
+            keys += config.get().getKeys(true).size();
+        }
+        return keys;
+    }
+
+    private static YamlConfiguration createMine(int regions) {
+        YamlConfiguration mine = new YamlConfiguration();
+        mine.set("name", "benchmark");
+        mine.set("display-name", "Benchmark");
+
+        ConfigurationSection controller = mine.createSection("controller");
+        controller.set("reset-mode", "TIME_PERCENTAGE");
+        controller.set("reset-delay", 600);
+        controller.set("reset-percentage", 25.0);
+        controller.set("countdown", 600);
+        controller.set("reset-count", 0L);
+
+        ConfigurationSection regionsSection = mine.createSection("regions");
+        for (int r = 0; r < regions; r++) {
+            ConfigurationSection region = regionsSection.createSection("region-" + r);
+            region.set("region-type", "SELECTION");
+            region.set("name", "region-" + r);
+            region.set("chance", 1.0);
+            region.set("fill-mode", "ALL");
+            region.set("world", "world");
+            region.set("selection-type", "CUBOID");
+            region.set("selection.min", (r * 32) + ",0," + (r * 32));
+            region.set("selection.max", (r * 32 + 15) + ",63," + (r * 32 + 15));
+
+            ConfigurationSection compositions = region.createSection("compositions");
+            for (int c = 0; c < 2; c++) {
+                ConfigurationSection composition = compositions.createSection("composition-" + c);
+                composition.set("name", "composition-" + c);
+                composition.set("chance", 50.0);
+
+                ConfigurationSection blocks = composition.createSection("blocks");
+                for (int b = 0; b < 8; b++) {
+                    ConfigurationSection block = blocks.createSection("block-" + b);
+                    block.set("block", "minecraft:stone");
+                    block.set("chance", 12.5);
+                    block.set("drop-type", "CUSTOM");
+                    block.createSection("loot-table");
+                }
+            }
+        }
+        return mine;
+    }
+}
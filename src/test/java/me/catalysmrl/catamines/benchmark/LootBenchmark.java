@@ -0,0 +1,86 @@
+package me.catalysmrl.catamines.benchmark;
+
+import me.catalysmrl.catamines.mine.components.composition.CataMineBlock;
+import me.catalysmrl.catamines.mine.components.composition.drop.CataMineItem;
+import me.catalysmrl.catamines.mine.components.composition.drop.LootTable;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls loot tables with fortune III, once by cloning and rolling every
+ * item like the legacy drop code did and once through the compiled
+ * {@link LootTable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LootBenchmark {
+
+    @Param({"1", "50"})
+    private int items;
+
+    private List<CataMineItem> lootItems;
+    private LootTable custom;
+    private LootTable single;
+
+    @Setup
+    public void setUp() {
+        lootItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            CataMineItem item = new CataMineItem(new ItemStack(Material.DIAMOND));
+            item.setChance(100d / items);
+            item.setFortune(true);
+            lootItems.add(item);
+        }
+
+        custom = LootTable.compile(CataMineBlock.DropType.CUSTOM, lootItems);
+        single = LootTable.compile(CataMineBlock.DropType.SINGLE, lootItems);
+    }
+
+    @Benchmark
+    public long naive() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long dropped = 0;
+        for (CataMineItem lootItem : lootItems) {
+            ItemStack item = lootItem.getItem().clone();
+            if (random.nextDouble() * 100 > lootItem.getChance()) continue;
+
+            if (lootItem.isFortune()) {
+                int multiplier = Math.max(0, random.nextInt(3 + 2) - 1);
+                item.setAmount(item.getAmount() * (multiplier + 1));
+            }
+            dropped += item.getAmount();
+        }
+        return dropped;
+    }
+
+    @Benchmark
+    public void compiledCustom(Blackhole blackhole) {
+        custom.roll(ThreadLocalRandom.current(), 3, (template, amount) -> blackhole.consume(amount));
+    }
+
+    @Benchmark
+    public void compiledSingle(Blackhole blackhole) {
+        single.roll(ThreadLocalRandom.current(), 3, (template, amount) -> blackhole.consume(amount));
+    }
+}
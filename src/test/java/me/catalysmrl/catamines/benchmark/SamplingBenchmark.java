@@ -0,0 +1,77 @@
+package me.catalysmrl.catamines.benchmark;
+
+import me.catalysmrl.catamines.utils.random.AliasTable;
+import me.catalysmrl.catamines.utils.random.WeightedSelection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples one of n equally weighted blocks per call: through a tree map
+ * of cumulative weights like WorldEdit's RandomPattern, through the
+ * binary search of {@link WeightedSelection} and through the
+ * {@link AliasTable} behind the AliasPattern. Block types need a running
+ * WorldEdit platform, so the indices stand in for them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SamplingBenchmark {
+
+    @Param({"2", "16", "64"})
+    private int blocks;
+
+    private NavigableMap<Double, Integer> treeMap;
+    private double total;
+    private WeightedSelection<Integer> selection;
+    private AliasTable aliasTable;
+
+    @Setup
+    public void setUp() {
+        treeMap = new TreeMap<>();
+        List<Integer> indices = new ArrayList<>(blocks);
+        double[] weights = new double[blocks];
+        for (int i = 0; i < blocks; i++) {
+            total += 1;
+            treeMap.put(total, i);
+            indices.add(i);
+            weights[i] = 1;
+        }
+
+        selection = WeightedSelection.of(indices, index -> 1);
+        aliasTable = AliasTable.of(weights);
+    }
+
+    @Benchmark
+    public int treeMap() {
+        return treeMap.ceilingEntry(ThreadLocalRandom.current().nextDouble() * total).getValue();
+    }
+
+    @Benchmark
+    public int weightedSelection() {
+        return selection.select(ThreadLocalRandom.current()).orElseThrow();
+    }
+
+    @Benchmark
+    public int aliasTable() {
+        return aliasTable.sample(ThreadLocalRandom.current());
+    }
+}
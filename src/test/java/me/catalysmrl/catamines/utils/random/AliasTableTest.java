@@ -0,0 +1,58 @@
+package me.catalysmrl.catamines.utils.random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AliasTableTest {
+
+    @Test
+    void samplesFromRandomBits() {
+        AliasTable table = AliasTable.of(new double[]{1, 2, 3, 4});
+
+        assertEquals(0, table.sample(0L));
+        assertEquals(2, table.sample(-1L));
+        assertEquals(2, table.sample(0x8000000000000000L));
+        assertEquals(1, table.sample(0x4000000080000000L));
+    }
+
+    @Test
+    void samplesSeededSequence() {
+        AliasTable table = AliasTable.of(new double[]{1, 2, 3, 4});
+
+        assertArrayEquals(new int[]{1, 3, 3, 2, 1, 3, 1, 1, 3, 1, 0, 3, 3, 3, 3, 2}, sample(table, 7, 16));
+    }
+
+    @Test
+    void neverSamplesZeroWeights() {
+        AliasTable table = AliasTable.of(new double[]{0, 5, 0, 5});
+
+        assertArrayEquals(new int[]{1, 3, 1, 3, 1, 3, 1, 1, 3, 1, 3, 1, 1, 1, 1, 3}, sample(table, 7, 16));
+    }
+
+    @Test
+    void singleWeightIsAlwaysSampled() {
+        AliasTable table = AliasTable.of(new double[]{0.5});
+
+        assertArrayEquals(new int[8], sample(table, 7, 8));
+    }
+
+    @Test
+    void rejectsInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[]{1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[]{1, Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[0]));
+    }
+
+    private static int[] sample(AliasTable table, long key, int count) {
+        CounterRandom random = new CounterRandom(key);
+        int[] samples = new int[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = table.sample(random);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,47 @@
+package me.catalysmrl.catamines.utils.random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CounterRandomTest {
+
+    @Test
+    void matchesSplitMix64ReferenceSequence() {
+        CounterRandom random = new CounterRandom(0);
+
+        assertEquals(0xE220A8397B1DCDAFL, random.nextLong());
+        assertEquals(0x6E789E6AA1B965F4L, random.nextLong());
+        assertEquals(0x06C45D188009454FL, random.nextLong());
+    }
+
+    @Test
+    void sameKeyGivesSameSequence() {
+        CounterRandom first = new CounterRandom(1234);
+        CounterRandom second = new CounterRandom(1234);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    @Test
+    void mixesValues() {
+        assertEquals(0L, CounterRandom.mix(0));
+        assertEquals(0x5692161D100B05E5L, CounterRandom.mix(1));
+    }
+
+    @Test
+    void hashesSeedAndCounter() {
+        assertEquals(0x7891E57DEC8A229EL, CounterRandom.hash(42, 0));
+        assertEquals(0xA9CB101BE2F6824FL, CounterRandom.hash(42, 1));
+        assertEquals(0x0524257C04FCF117L, CounterRandom.hash(-1, 7));
+    }
+
+    @Test
+    void hashesSeedAndPosition() {
+        assertEquals(0xCD32F5BB1623F15EL, CounterRandom.hash(42, 0, 0, 0));
+        assertEquals(0xFA6DAC2165510ABEL, CounterRandom.hash(42, 1, 64, -3));
+        assertEquals(0x9D3ACB6CE20F0EA3L, CounterRandom.hash(42, -3, 64, 1));
+    }
+}
@@ -0,0 +1,65 @@
+package me.catalysmrl.catamines.utils.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedSelectionTest {
+
+    private static final Map<String, Double> WEIGHTS = Map.of("a", 1.0, "b", 0.0, "c", 3.0);
+
+    @Test
+    void selectsByCumulativeWeight() {
+        WeightedSelection<String> selection = WeightedSelection.of(List.of("a", "b", "c"), WEIGHTS::get);
+
+        assertEquals(Optional.of("a"), selection.select(0.0));
+        assertEquals(Optional.of("a"), selection.select(0.2499));
+        assertEquals(Optional.of("c"), selection.select(0.25));
+        assertEquals(Optional.of("c"), selection.select(0.9999999));
+    }
+
+    @Test
+    void selectsSeededSequence() {
+        WeightedSelection<String> selection = WeightedSelection.of(List.of("a", "b", "c"), WEIGHTS::get);
+        CounterRandom random = new CounterRandom(3);
+
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            selected.add(selection.select(random).orElseThrow());
+        }
+        assertEquals(List.of("a", "c", "c", "a", "a", "c", "a", "c", "c", "c", "c", "c"), selected);
+    }
+
+    @Test
+    void allZeroWeightsAreEquallyLikely() {
+        WeightedSelection<String> selection = WeightedSelection.of(List.of("a", "b", "c"), item -> 0);
+
+        assertEquals(Optional.of("a"), selection.select(0.0));
+        assertEquals(Optional.of("b"), selection.select(0.34));
+        assertEquals(Optional.of("c"), selection.select(0.67));
+        assertEquals(Optional.of("c"), selection.select(0.999));
+    }
+
+    @Test
+    void negativeWeightsCountAsZero() {
+        WeightedSelection<String> selection = WeightedSelection.of(List.of("a", "b"), item -> item.equals("a") ? -2 : 1);
+
+        assertEquals(0.0, selection.getWeight(0));
+        assertEquals(1.0, selection.getTotal());
+        assertEquals(Optional.of("b"), selection.select(0.0));
+    }
+
+    @Test
+    void emptySelectionSelectsNothing() {
+        WeightedSelection<String> selection = WeightedSelection.of(List.of(), item -> 1);
+
+        assertTrue(selection.isEmpty());
+        assertEquals(Optional.empty(), selection.select(0.5));
+    }
+}
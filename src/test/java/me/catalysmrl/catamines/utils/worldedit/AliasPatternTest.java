@@ -0,0 +1,63 @@
+package me.catalysmrl.catamines.utils.worldedit;
+
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AliasPatternTest {
+
+    private static final BlockVector3[] POSITIONS = {
+            BlockVector3.at(0, 0, 0),
+            BlockVector3.at(1, 0, 0),
+            BlockVector3.at(0, 1, 0),
+            BlockVector3.at(0, 0, 1),
+            BlockVector3.at(5, 64, -5),
+            BlockVector3.at(-5, 64, 5),
+            BlockVector3.at(100, -60, 100),
+            BlockVector3.at(-7, 3, 12)
+    };
+
+    private final BaseBlock stone = block();
+    private final BaseBlock coal = block();
+    private final BaseBlock iron = block();
+    private final AliasPattern pattern = AliasPattern.of(List.of(stone, coal, iron), new double[]{1, 1, 2});
+
+    @Test
+    void seededPatternPicksExactBlocks() {
+        assertBlocks(pattern.withSeed(42), iron, coal, coal, coal, iron, iron, iron, stone);
+        assertBlocks(pattern.withSeed(43), iron, iron, coal, coal, coal, stone, stone, stone);
+    }
+
+    @Test
+    void seededPatternDoesNotDependOnOrder() {
+        Pattern seeded = pattern.withSeed(42);
+        BaseBlock last = seeded.applyBlock(POSITIONS[POSITIONS.length - 1]);
+
+        for (BlockVector3 position : POSITIONS) {
+            seeded.applyBlock(position);
+        }
+        assertSame(last, seeded.applyBlock(POSITIONS[POSITIONS.length - 1]));
+        assertSame(last, pattern.withSeed(42).applyBlock(POSITIONS[POSITIONS.length - 1]));
+    }
+
+    /**
+     * Creates a block told apart by identity. Its state is never read, so
+     * no WorldEdit block registry is needed.
+     */
+    private static BaseBlock block() {
+        return new BaseBlock((BlockState) null) {
+        };
+    }
+
+    private static void assertBlocks(Pattern seeded, BaseBlock... expected) {
+        for (int i = 0; i < POSITIONS.length; i++) {
+            assertSame(expected[i], seeded.applyBlock(POSITIONS[i]), "block at " + POSITIONS[i]);
+        }
+    }
+}